@@ -17,7 +17,6 @@ package tech.metacontext.ec.prototype.abs;
 
 import java.io.Serializable;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  *
@@ -26,29 +25,33 @@ import java.util.UUID;
  */
 public abstract class Individual<E> implements Serializable {
 
-    private final String id;
+    private final long id;
+    /**
+     * UUID form of id, materialized on demand.
+     */
+    private transient String uuid;
     private E eval;
 
-    public Individual(String id) {
+    public Individual(long id) {
 
         this.id = id;
     }
 
     public Individual() {
 
-        this(UUID.randomUUID().toString());
+        this(IdAllocator.next());
     }
 
     public String getId_prefix() {
 
-        return "[" + id.substring(0, 13) + "]";
+        return IdAllocator.prefix(id);
     }
 
     @Override
     public int hashCode() {
 
         int hash = 7;
-        hash = 59 * hash + Objects.hashCode(this.id);
+        hash = 59 * hash + Long.hashCode(this.id);
         return hash;
     }
 
@@ -65,7 +68,7 @@ public abstract class Individual<E> implements Serializable {
             return false;
         }
         final Individual other = (Individual) obj;
-        return Objects.equals(this.id, other.id);
+        return this.id == other.id;
     }
 
     @Override
@@ -77,7 +80,19 @@ public abstract class Individual<E> implements Serializable {
     /*
      * Default setters and getters.
      */
+    /**
+     * UUID form of id, for display and persistence.
+     *
+     * @return the UUID string.
+     */
     public String getId() {
+        if (Objects.isNull(uuid)) {
+            uuid = IdAllocator.toUUID(id).toString();
+        }
+        return uuid;
+    }
+
+    public long getNumericId() {
         return id;
     }
 
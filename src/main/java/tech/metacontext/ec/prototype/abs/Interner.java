@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.abs;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounded concurrent pool of canonical values. The pool holds at most the
+ * capacity supplied and is emptied when full, so values created afterwards are
+ * canonical again from then on; a capacity of 0 disables pooling.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ * @param <K> key of value.
+ * @param <V> canonical value.
+ */
+public class Interner<K, V> {
+
+    private final Map<K, V> pool = new ConcurrentHashMap<>();
+    private final IntSupplier capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     *
+     * @param capacity maximal number of values, read on every miss.
+     */
+    public Interner(IntSupplier capacity) {
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Canonical value of a key, created on the first request.
+     *
+     * @param key
+     * @param create value of a key not pooled.
+     * @return the value pooled, or created if pooling is disabled.
+     */
+    public V get(K key, Function<? super K, ? extends V> create) {
+
+        var value = pool.get(key);
+        if (Objects.nonNull(value)) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        int max = capacity.getAsInt();
+        if (max <= 0) {
+            return create.apply(key);
+        }
+        if (pool.size() >= max) {
+            pool.clear();
+            evictions.increment();
+        }
+        return pool.computeIfAbsent(key, create);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of times the pool was emptied for being full.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return share of requests answered from pool, 0 if none.
+     */
+    public double getHitRate() {
+
+        long h = getHits(), total = h + getMisses();
+        return total == 0 ? 0.0 : 1.0 * h / total;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Empty the pool and reset its metrics.
+     */
+    public void clear() {
+
+        pool.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("{size = %d, hits = %d, misses = %d, "
+                + "evictions = %d, hit rate = %.3f}", size(), getHits(),
+                getMisses(), getEvictions(), getHitRate());
+    }
+}
@@ -44,7 +44,7 @@ public abstract class Population<E extends Individual> implements Serializable {
     private final UUID id;
     private List<E> population;
     private final transient List<List<E>> archive;
-    private int genCount;
+    private volatile int genCount;
 
     public Population() {
 
@@ -90,7 +90,7 @@ public abstract class Population<E extends Individual> implements Serializable {
         return population.size();
     }
 
-    public int genCountIncrement() {
+    public synchronized int genCountIncrement() {
 
         return ++this.genCount;
     }
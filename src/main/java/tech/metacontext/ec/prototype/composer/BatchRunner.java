@@ -0,0 +1,380 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import tech.metacontext.ec.prototype.composer.model.*;
+import tech.metacontext.ec.prototype.composer.styles.*;
+import tech.metacontext.ec.prototype.composer.enums.ComposerAim;
+import tech.metacontext.ec.prototype.composer.factory.CompositionFactory;
+
+/**
+ * Headless runner of many Composers with different seeds on a worker pool in
+ * one JVM. Each run evolves until its conservatory reaches the selected size
+ * or the generation limit, streaming its statistics and conservatory journal
+ * into a folder of its own; an aggregate report of all runs is written at the
+ * end.
+ * <p>
+ * Runs are independent of each other and of the scheduling, since every
+ * random stream of a Composer is keyed by its seed.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class BatchRunner {
+
+    /**
+     * Entry point of batch runs.
+     *
+     * @param args: <code>POPULATION</code>, <code>GENERATION</code>,
+     * <code>SELECTED</code>, <code>RANDOM_SEED</code> of the first run,
+     * <code>RUNS</code>, <code>WORKERS</code>, <code>OUTPUT</code>
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+
+        var params = Stream.of(args)
+                .map(arg -> arg.split("="))
+                .filter(s -> s.length == 2)
+                .collect(Collectors.toMap(s -> s[0], s -> s[1]));
+
+        var runner = new BatchRunner(
+                getParam(params, "POPULATION", DEFAULT_POP_SIZE, Integer::valueOf),
+                getParam(params, "SELECTED", DEFAULT_SELECTED_SIZE, Integer::valueOf),
+                getParam(params, "GENERATION", DEFAULT_GENERATION, Integer::valueOf),
+                SELECTION_THRESHOLD.getDouble(),
+                MIN_CONSERVE_SCORE.getDouble(),
+                Path.of(getParam(params, "OUTPUT",
+                        BATCH_PATH + getTimeBasedFilename(), String::valueOf)));
+        long first = getParam(params, "RANDOM_SEED", RANDOM_SEED, Long::valueOf);
+        var seeds = LongStream.range(first,
+                first + getParam(params, "RUNS", DEFAULT_RUNS, Integer::valueOf))
+                .toArray();
+        runner.run(seeds, getParam(params, "WORKERS",
+                Runtime.getRuntime().availableProcessors(), Integer::valueOf));
+    }
+
+    static <T> T getParam(Map<String, String> params, String key,
+            T default_value, Function<String, T> function) {
+
+        try {
+            var value = params.get(key);
+            if (Objects.nonNull(value)) {
+                System.out.println(key + "=" + value);
+                return function.apply(value);
+            }
+        } catch (Exception ignore) {
+            System.out.println("Illegal value, using default value instead: " + default_value);
+        }
+        return default_value;
+    }
+
+    public static int DEFAULT_RUNS = 10;
+    public static final String GENERATIONS_FILE = "generations.csv",
+            CONSERVATORY_FILE = "conservatory.journal",
+            SUMMARY_FILE = "summary.txt",
+            REPORT_FILE = "report.csv";
+
+    /**
+     * Outcome of a single run.
+     */
+    public static class Result {
+
+        public static final String HEADER
+                = "seed,generations,conserved,reached,best,millis";
+
+        final long seed;
+        final int generations;
+        final int conserved;
+        final boolean reached;
+        final double best;
+        final long millis;
+
+        Result(long seed, int generations, int conserved, boolean reached,
+                double best, long millis) {
+
+            this.seed = seed;
+            this.generations = generations;
+            this.conserved = conserved;
+            this.reached = reached;
+            this.best = best;
+            this.millis = millis;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getGenerations() {
+            return generations;
+        }
+
+        public int getConserved() {
+            return conserved;
+        }
+
+        public boolean isReached() {
+            return reached;
+        }
+
+        public double getBest() {
+            return best;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String toCsv() {
+            return String.format("%d,%d,%d,%b,%.4f,%d",
+                    seed, generations, conserved, reached, best, millis);
+        }
+    }
+
+    private final ParameterSet parameters;
+    private final int popSize;
+    private final int goalSize;
+    private final int generation;
+    private final double threshold;
+    private final double conserve_score;
+    private final Path output;
+
+    /**
+     *
+     * @param popSize
+     * @param goalSize conservatory size at which a run stops.
+     * @param generation generation limit of a run.
+     * @param threshold
+     * @param conserve_score
+     * @param output folder of reports.
+     */
+    public BatchRunner(int popSize,
+            int goalSize,
+            int generation,
+            double threshold,
+            double conserve_score,
+            Path output) {
+
+        this(Settings.getParameters(), popSize, goalSize, generation,
+                threshold, conserve_score, output);
+    }
+
+    /**
+     * Constructor with a parameter set, taking threshold and conserve score
+     * from it.
+     *
+     * @param parameters
+     * @param popSize
+     * @param goalSize
+     * @param generation
+     * @param output
+     */
+    public BatchRunner(ParameterSet parameters,
+            int popSize,
+            int goalSize,
+            int generation,
+            Path output) {
+
+        this(parameters, popSize, goalSize, generation,
+                parameters.getDouble(SELECTION_THRESHOLD),
+                parameters.getDouble(MIN_CONSERVE_SCORE),
+                output);
+    }
+
+    public BatchRunner(ParameterSet parameters,
+            int popSize,
+            int goalSize,
+            int generation,
+            double threshold,
+            double conserve_score,
+            Path output) {
+
+        this.parameters = parameters;
+        this.popSize = popSize;
+        this.goalSize = goalSize;
+        this.generation = generation;
+        this.threshold = threshold;
+        this.conserve_score = conserve_score;
+        this.output = output;
+    }
+
+    /**
+     * Run a Composer for each seed on a pool of workers. Results are appended
+     * to the report as soon as runs finish.
+     *
+     * @param seeds
+     * @param workers
+     * @return results in the order of seeds.
+     * @throws Exception
+     */
+    public List<Result> run(long[] seeds, int workers) throws Exception {
+
+        Files.createDirectories(output);
+        System.out.println(header("Batch Runs"));
+        System.out.println("Output = " + output);
+        System.out.printf("Runs = %d, Workers = %d, Population size = %d\n",
+                seeds.length, workers, popSize);
+        System.out.printf("Selected (Conservatory) size = %d, Generation limit = %d\n",
+                goalSize, generation);
+        System.out.println("Parameters = " + parameters);
+        long start = System.nanoTime();
+        var executor = Executors.newFixedThreadPool(workers);
+        var results = new ArrayList<Result>();
+        try (var report = Files.newBufferedWriter(output.resolve(REPORT_FILE))) {
+            report.write(Result.HEADER);
+            report.newLine();
+            var completion = new ExecutorCompletionService<Result>(executor);
+            LongStream.of(seeds).forEach(seed -> completion.submit(() -> runSeed(seed)));
+            for (int i = 0; i < seeds.length; i++) {
+                Result result;
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Batch run failed.", ex.getCause());
+                }
+                results.add(result);
+                report.write(result.toCsv());
+                report.newLine();
+                report.flush();
+                System.out.printf("[%d/%d] %s\n", i + 1, seeds.length, result.toCsv());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        results.sort(Comparator.comparingLong(Result::getSeed));
+        var summary = summarize(results, millis);
+        Files.writeString(output.resolve(SUMMARY_FILE), summary);
+        System.out.println(header("Summary"));
+        System.out.print(summary);
+        return results;
+    }
+
+    /**
+     * Evolve a Composer of the seed, streaming statistics of every generation
+     * into its own folder.
+     *
+     * @param seed
+     * @return the result of the run.
+     * @throws Exception
+     */
+    public Result runSeed(long seed) throws Exception {
+
+        long start = System.nanoTime();
+        var folder = output.resolve(String.valueOf(seed));
+        Files.createDirectories(folder);
+        var gsc = new GoldenSectionClimax(UnaccompaniedCello.RANGE.keySet());
+        var composer = new Composer(seed, parameters, popSize, ComposerAim.Phrase,
+                LogState.DISABLED, threshold, conserve_score,
+                new UnaccompaniedCello(), gsc);
+        composer.ARCHIVE = false;
+        composer.setAdaptive(ADAPTIVE_OPERATORS);
+        composer.openJournal(folder.resolve(CONSERVATORY_FILE));
+        try (var log = Files.newBufferedWriter(folder.resolve(GENERATIONS_FILE))) {
+            log.write("generation,conserved,best,average,sizes");
+            log.newLine();
+            do {
+                composer.sketch().evolve();
+                writeGeneration(log, composer);
+            } while (!composer.isStopped()
+                    && composer.getConservatory().size() < goalSize
+                    && composer.getGenCount() < generation);
+        } finally {
+            composer.close();
+        }
+        var result = new Result(seed,
+                composer.getGenCount(),
+                composer.getConservatory().size(),
+                composer.getConservatory().size() >= goalSize,
+                composer.getConservatory().keySet().stream()
+                        .mapToDouble(composer::getMinScore)
+                        .max().orElse(0.0),
+                (System.nanoTime() - start) / 1_000_000);
+        Files.writeString(folder.resolve(SUMMARY_FILE),
+                Result.HEADER + "\n" + result.toCsv() + "\n"
+                + (composer.isAdaptive() ? composer.getController() + "\n" : ""));
+        CompositionFactory.release(composer);
+        return result;
+    }
+
+    private static void writeGeneration(BufferedWriter log, Composer composer)
+            throws IOException {
+
+        var scores = composer.getPopulation().stream()
+                .mapToDouble(composer::getMinScore)
+                .filter(score -> score > 0.0)
+                .summaryStatistics();
+        log.write(String.format("%d,%d,%.4f,%.4f,%s",
+                composer.getGenCount(),
+                composer.getConservatory().size(),
+                scores.getCount() > 0 ? scores.getMax() : 0.0,
+                scores.getAverage(),
+                Composer.getSummary(composer.getPopulation())));
+        log.newLine();
+        log.flush();
+    }
+
+    public ParameterSet getParameters() {
+        return parameters;
+    }
+
+    public static String summarize(List<Result> results, long millis) {
+
+        return String.format("Runs = %d, Reached = %d, Wall time = %.1f s, "
+                + "Throughput = %.2f runs/min\n",
+                results.size(),
+                results.stream().filter(Result::isReached).count(),
+                millis / 1000.0,
+                results.size() * 60_000.0 / Math.max(1, millis))
+                + describe("Generations", results, Result::getGenerations)
+                + describe("Conserved", results, Result::getConserved)
+                + describe("Best score", results, Result::getBest)
+                + describe("Millis", results, Result::getMillis);
+    }
+
+    private static String describe(String name, List<Result> results,
+            ToDoubleFunction<Result> mapper) {
+
+        var sorted = results.stream().mapToDouble(mapper).sorted().toArray();
+        if (sorted.length == 0) {
+            return name + ": -\n";
+        }
+        int mid = sorted.length / 2;
+        double median = (sorted.length % 2 == 1) ? sorted[mid]
+                : (sorted[mid - 1] + sorted[mid]) / 2.0;
+        return String.format("%s: mean = %.3f, median = %.3f, min = %.3f, max = %.3f\n",
+                name, Arrays.stream(sorted).average().getAsDouble(),
+                median, sorted[0], sorted[sorted.length - 1]);
+    }
+}
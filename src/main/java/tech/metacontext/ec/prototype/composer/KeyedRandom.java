@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Counter-based random stream. The n-th value of a stream is the SplitMix64
+ * finalizer applied to (key + n * GOLDEN_GAMMA), so a stream is fully
+ * determined by its key and streams derived from different keys share no
+ * state. Keys are derived from (run seed, generation, index, purpose).
+ * <p>
+ * An instance is meant to be confined to one task; bind it to the current
+ * thread with {@link Settings#withRandom}.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class KeyedRandom extends Random {
+
+    public static void main(String[] args) {
+
+        IntStream.range(0, 3)
+                .mapToObj(i -> KeyedRandom.of(Settings.RANDOM_SEED, 0, i, Purpose.CHILD))
+                .map(r -> r.ints(8, 0, 100).mapToObj(String::valueOf)
+                .collect(Collectors.joining(" ")))
+                .forEach(System.out::println);
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    public static enum Purpose {
+
+        INITIALIZATION, ARCHIVING, SKETCH, PREPARATION, CHILD, CONSERVATION, BIRTH, SEEDING, RENDERING
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long key;
+    private long counter;
+
+    public KeyedRandom(long key) {
+
+        super(key);
+    }
+
+    public static KeyedRandom of(long seed, int generation, long index, Purpose purpose) {
+
+        long key = mix64(seed);
+        key = mix64(key + GOLDEN_GAMMA * (purpose.ordinal() + 1));
+        key = mix64(key + GOLDEN_GAMMA * (generation + 1L));
+        key = mix64(key + GOLDEN_GAMMA * (index + 1));
+        return new KeyedRandom(key);
+    }
+
+    public static long mix64(long z) {
+
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Reset the stream with a new key. Called by the constructor of Random.
+     *
+     * @param key
+     */
+    @Override
+    public synchronized void setSeed(long key) {
+
+        super.setSeed(key);
+        this.key = key;
+        this.counter = 0;
+    }
+
+    @Override
+    protected int next(int bits) {
+
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+
+        return mix64(this.key + GOLDEN_GAMMA * ++this.counter);
+    }
+
+    @Override
+    public double nextDouble() {
+
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getCounter() {
+        return counter;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import tech.metacontext.ec.prototype.composer.operations.AliasSampler;
+
+/**
+ * Immutable set of values of Parameters. Parameters not overridden keep the
+ * defaults of the enum.
+ * <p>
+ * A Composer binds its set to the current thread with
+ * {@link Settings#withParameters} along with its random streams, so that
+ * {@link Parameters#getDouble()} and {@link Parameters#getInt()} read the set
+ * of the Composer being run. Samplers derived from the values are cached per
+ * set.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public final class ParameterSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static void main(String[] args) {
+
+        var set = DEFAULT.with(Parameters.CHANCE_RESEEDING, 0.3)
+                .with(Parameters.SELECTION_THRESHOLD, 0.8);
+        System.out.println(set);
+        Settings.withParameters(set, () -> {
+            System.out.println(Parameters.CHANCE_RESEEDING.getDouble());
+            return null;
+        });
+        System.out.println(Parameters.CHANCE_RESEEDING.getDouble());
+    }
+
+    public static final ParameterSet DEFAULT = new ParameterSet(Map.of());
+
+    private final Map<Parameters, Number> values;
+    private transient volatile Map<Object, AliasSampler<?>> samplers;
+
+    private ParameterSet(Map<Parameters, ? extends Number> values) {
+
+        var map = new EnumMap<Parameters, Number>(Parameters.class);
+        map.putAll(values);
+        this.values = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * A set of the specified overrides.
+     *
+     * @param values
+     * @return the parameter set.
+     */
+    public static ParameterSet of(Map<Parameters, ? extends Number> values) {
+
+        return new ParameterSet(values);
+    }
+
+    /**
+     * Copy of this set with one more override.
+     *
+     * @param parameter
+     * @param value
+     * @return a new parameter set.
+     */
+    public ParameterSet with(Parameters parameter, Number value) {
+
+        var map = new EnumMap<Parameters, Number>(Parameters.class);
+        map.putAll(this.values);
+        map.put(parameter, value);
+        return new ParameterSet(map);
+    }
+
+    public Number get(Parameters parameter) {
+
+        return this.values.getOrDefault(parameter, parameter.value);
+    }
+
+    public double getDouble(Parameters parameter) {
+
+        return get(parameter).doubleValue();
+    }
+
+    public int getInt(Parameters parameter) {
+
+        return get(parameter).intValue();
+    }
+
+    /**
+     * Sampler derived from values of this set, built once per key.
+     *
+     * @param <E>
+     * @param key identity of the sampler, such as the class it samples.
+     * @param builder
+     * @return the cached sampler.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> AliasSampler<E> getSampler(Object key, Supplier<AliasSampler<E>> builder) {
+
+        if (Objects.isNull(samplers)) {
+            synchronized (this) {
+                if (Objects.isNull(samplers)) {
+                    samplers = new ConcurrentHashMap<>();
+                }
+            }
+        }
+        return (AliasSampler<E>) samplers.computeIfAbsent(key, k -> builder.get());
+    }
+
+    /**
+     * Overridden values only.
+     *
+     * @return map of overrides.
+     */
+    public Map<Parameters, Number> getValues() {
+
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        return (o instanceof ParameterSet)
+                && this.values.equals(((ParameterSet) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return this.values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+
+        return this.values.isEmpty() ? "DEFAULT"
+                : this.values.entrySet().stream()
+                        .map(e -> e.getKey() + "=" + e.getValue())
+                        .collect(Collectors.joining(" "));
+    }
+}
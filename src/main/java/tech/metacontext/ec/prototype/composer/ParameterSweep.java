@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import static tech.metacontext.ec.prototype.composer.BatchRunner.getParam;
+import tech.metacontext.ec.prototype.composer.BatchRunner.Result;
+
+/**
+ * Grid or random search over parameter sets. Every (parameter set, seed) pair
+ * is a batch run on a shared worker pool; parameter sets are ranked by the
+ * share of runs reaching the selected size, then by mean generations and mean
+ * wall time.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ParameterSweep {
+
+    /**
+     * Entry point of parameter sweeps.
+     *
+     * @param args: <code>POPULATION</code>, <code>GENERATION</code>,
+     * <code>SELECTED</code>, <code>RANDOM_SEED</code>, <code>RUNS</code> per
+     * parameter set, <code>WORKERS</code>, <code>SAMPLES</code> for random
+     * search instead of grid, <code>OUTPUT</code>
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+
+        var params = Stream.of(args)
+                .map(arg -> arg.split("="))
+                .filter(s -> s.length == 2)
+                .collect(Collectors.toMap(s -> s[0], s -> s[1]));
+
+        var axes = new LinkedHashMap<Parameters, double[]>();
+        axes.put(CHANCE_RESEEDING, new double[]{0.3, 0.5, 0.7});
+        axes.put(CHANCE_CROSSOVER_IF_COMPLETED, new double[]{0.4, 0.6, 0.8});
+        long first = getParam(params, "RANDOM_SEED", RANDOM_SEED, Long::valueOf);
+        int samples = getParam(params, "SAMPLES", 0, Integer::valueOf);
+        var sets = (samples > 0)
+                ? random(ParameterSet.DEFAULT, axes, samples, first)
+                : grid(ParameterSet.DEFAULT, axes);
+        var sweep = new ParameterSweep(
+                getParam(params, "POPULATION", DEFAULT_POP_SIZE, Integer::valueOf),
+                getParam(params, "SELECTED", DEFAULT_SELECTED_SIZE, Integer::valueOf),
+                getParam(params, "GENERATION", DEFAULT_GENERATION, Integer::valueOf),
+                Path.of(getParam(params, "OUTPUT",
+                        BATCH_PATH + "sweep-" + getTimeBasedFilename(), String::valueOf)));
+        var seeds = LongStream.range(first,
+                first + getParam(params, "RUNS", BatchRunner.DEFAULT_RUNS, Integer::valueOf))
+                .toArray();
+        sweep.run(sets, seeds, getParam(params, "WORKERS",
+                Runtime.getRuntime().availableProcessors(), Integer::valueOf));
+    }
+
+    public static final String SWEEP_FILE = "sweep.csv";
+
+    /**
+     * Results of a parameter set over all seeds.
+     */
+    public static class Ranking {
+
+        public static final String HEADER
+                = "rank,set,reached,generations,millis,parameters";
+
+        final int index;
+        final ParameterSet parameters;
+        final List<Result> results;
+
+        Ranking(int index, ParameterSet parameters, List<Result> results) {
+
+            this.index = index;
+            this.parameters = parameters;
+            this.results = results;
+        }
+
+        public double getReachedRate() {
+
+            return results.stream().filter(Result::isReached).count()
+                    * 1.0 / results.size();
+        }
+
+        /**
+         * Mean generations to the selected size, runs not reaching it count
+         * with the generation limit.
+         *
+         * @return mean generations.
+         */
+        public double getMeanGenerations() {
+
+            return results.stream().mapToInt(Result::getGenerations)
+                    .average().orElse(0.0);
+        }
+
+        public double getMeanMillis() {
+
+            return results.stream().mapToLong(Result::getMillis)
+                    .average().orElse(0.0);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ParameterSet getParameters() {
+            return parameters;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public String toCsv(int rank) {
+            return String.format("%d,%d,%.3f,%.2f,%.0f,%s", rank, index,
+                    getReachedRate(), getMeanGenerations(), getMeanMillis(),
+                    parameters);
+        }
+    }
+
+    public static final Comparator<Ranking> RANKING
+            = Comparator.comparingDouble(Ranking::getReachedRate).reversed()
+                    .thenComparingDouble(Ranking::getMeanGenerations)
+                    .thenComparingDouble(Ranking::getMeanMillis);
+
+    /**
+     * Cartesian product of the values of every axis over a base set.
+     *
+     * @param base
+     * @param axes values of each parameter.
+     * @return parameter sets of the grid.
+     */
+    public static List<ParameterSet> grid(ParameterSet base, Map<Parameters, double[]> axes) {
+
+        var sets = List.of(base);
+        for (var axis : axes.entrySet()) {
+            sets = sets.stream()
+                    .flatMap(set -> Arrays.stream(axis.getValue())
+                    .mapToObj(value -> set.with(axis.getKey(), value)))
+                    .collect(Collectors.toList());
+        }
+        return sets;
+    }
+
+    /**
+     * Parameter sets with values drawn uniformly between the lowest and the
+     * highest of each axis.
+     *
+     * @param base
+     * @param axes values of each parameter, of which the range is taken.
+     * @param samples number of parameter sets.
+     * @param seed
+     * @return parameter sets drawn.
+     */
+    public static List<ParameterSet> random(ParameterSet base,
+            Map<Parameters, double[]> axes, int samples, long seed) {
+
+        var random = KeyedRandom.of(seed, 0, 0, KeyedRandom.Purpose.INITIALIZATION);
+        return IntStream.range(0, samples)
+                .mapToObj(i -> {
+                    var set = base;
+                    for (var axis : axes.entrySet()) {
+                        var stats = Arrays.stream(axis.getValue()).summaryStatistics();
+                        double value = stats.getMin()
+                                + random.nextDouble() * (stats.getMax() - stats.getMin());
+                        set = set.with(axis.getKey(), Math.round(value * 1000) / 1000.0);
+                    }
+                    return set;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private final int popSize;
+    private final int goalSize;
+    private final int generation;
+    private final Path output;
+
+    public ParameterSweep(int popSize, int goalSize, int generation, Path output) {
+
+        this.popSize = popSize;
+        this.goalSize = goalSize;
+        this.generation = generation;
+        this.output = output;
+    }
+
+    /**
+     * Run every parameter set with every seed on a pool of workers.
+     *
+     * @param sets
+     * @param seeds
+     * @param workers
+     * @return rankings of the parameter sets, best first.
+     * @throws Exception
+     */
+    public List<Ranking> run(List<ParameterSet> sets, long[] seeds, int workers)
+            throws Exception {
+
+        Files.createDirectories(output);
+        System.out.println(header("Parameter Sweep"));
+        System.out.println("Output = " + output);
+        System.out.printf("Parameter sets = %d, Runs = %d, Workers = %d\n",
+                sets.size(), seeds.length, workers);
+        var runners = IntStream.range(0, sets.size())
+                .mapToObj(i -> new BatchRunner(sets.get(i), popSize, goalSize,
+                generation, output.resolve(String.format("set-%03d", i))))
+                .collect(Collectors.toList());
+        var results = new ArrayList<List<Result>>();
+        sets.forEach(set -> results.add(new ArrayList<>()));
+        var executor = Executors.newFixedThreadPool(workers);
+        try {
+            var completion = new ExecutorCompletionService<Map.Entry<Integer, Result>>(executor);
+            for (int i = 0; i < sets.size(); i++) {
+                var index = i;
+                LongStream.of(seeds).forEach(seed -> completion.submit(()
+                        -> Map.entry(index, runners.get(index).runSeed(seed))));
+            }
+            for (int n = 0; n < sets.size() * seeds.length; n++) {
+                Map.Entry<Integer, Result> entry;
+                try {
+                    entry = completion.take().get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Sweep run failed.", ex.getCause());
+                }
+                results.get(entry.getKey()).add(entry.getValue());
+                System.out.printf("[%d/%d] set-%03d %s\n", n + 1,
+                        sets.size() * seeds.length, entry.getKey(),
+                        entry.getValue().toCsv());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        var rankings = IntStream.range(0, sets.size())
+                .mapToObj(i -> new Ranking(i, sets.get(i), results.get(i)))
+                .sorted(RANKING)
+                .collect(Collectors.toList());
+        var lines = new ArrayList<String>();
+        lines.add(Ranking.HEADER);
+        IntStream.range(0, rankings.size())
+                .mapToObj(r -> rankings.get(r).toCsv(r + 1))
+                .forEach(lines::add);
+        Files.write(output.resolve(SWEEP_FILE), lines);
+        System.out.println(header("Ranking"));
+        lines.forEach(System.out::println);
+        return rankings;
+    }
+}
@@ -104,13 +104,18 @@ public enum Parameters {
         this.value = value;
     }
 
+    /**
+     * Value in the parameter set bound to current thread.
+     *
+     * @return the value.
+     */
     public double getDouble() {
 
-        return value.doubleValue();
+        return Settings.getParameters().getDouble(this);
     }
 
     public int getInt() {
 
-        return value.intValue();
+        return Settings.getParameters().getInt(this);
     }
 }
@@ -24,6 +24,7 @@ import java.io.File;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  *
@@ -38,6 +39,8 @@ public class Settings {
 
     public static long RANDOM_SEED = 4131318980864143334L;
     private static Random r;
+    private static final ThreadLocal<Random> BOUND = new ThreadLocal<>();
+    private static final ThreadLocal<ParameterSet> BOUND_PARAMETERS = new ThreadLocal<>();
 
     public static void initialize(long seed) {
 
@@ -45,20 +48,146 @@ public class Settings {
         r = new Random(seed);
     }
 
+    /**
+     * Get the random stream bound to current thread by withRandom, or the
+     * shared one if none is bound.
+     *
+     * @return Random instance.
+     */
     public static Random getRandom() {
 
+        var bound = BOUND.get();
+        if (Objects.nonNull(bound))
+            return bound;
         if (Objects.isNull(r))
             r = new Random(RANDOM_SEED);
         return r;
     }
 
+    /**
+     * Run a task with the specified random stream bound to current thread, so
+     * that every getRandom() call within the task draws from it.
+     *
+     * @param <T>
+     * @param random random stream for the task.
+     * @param task
+     * @return result of the task.
+     */
+    public static <T> T withRandom(Random random, Supplier<T> task) {
+
+        var previous = BOUND.get();
+        BOUND.set(random);
+        try {
+            return task.get();
+        } finally {
+            if (Objects.isNull(previous))
+                BOUND.remove();
+            else
+                BOUND.set(previous);
+        }
+    }
+
+    /**
+     * Get the parameter set bound to current thread by withParameters, or the
+     * default one if none is bound.
+     *
+     * @return ParameterSet instance.
+     */
+    public static ParameterSet getParameters() {
+
+        var bound = BOUND_PARAMETERS.get();
+        return Objects.isNull(bound) ? ParameterSet.DEFAULT : bound;
+    }
+
+    /**
+     * Run a task with the specified parameter set bound to current thread, so
+     * that every Parameters read within the task takes its value from it.
+     *
+     * @param <T>
+     * @param parameters parameter set for the task.
+     * @param task
+     * @return result of the task.
+     */
+    public static <T> T withParameters(ParameterSet parameters, Supplier<T> task) {
+
+        var previous = BOUND_PARAMETERS.get();
+        BOUND_PARAMETERS.set(parameters);
+        try {
+            return task.get();
+        } finally {
+            if (Objects.isNull(previous))
+                BOUND_PARAMETERS.remove();
+            else
+                BOUND_PARAMETERS.set(previous);
+        }
+    }
+
     public static int DEFAULT_POP_SIZE = 100;
     public static int DEFAULT_GENERATION = 300;
     public static int DEFAULT_SELECTED_SIZE = 20;
+    /**
+     * Whether Studio and BatchRunner adapt operator chances and selection
+     * threshold, which reaches the goal in fewer generations than the fixed
+     * chances on most seeds.
+     */
+    public static boolean ADAPTIVE_OPERATORS = true;
+    /**
+     * Whether compositions keep a trail of their latest DEBUG_TRAIL_CAPACITY
+     * debug events.
+     */
+    public static boolean DEBUG_TRAIL = false;
+    public static int DEBUG_TRAIL_CAPACITY = 16;
+    /**
+     * Maximal number of memoized material transforms, 0 to disable the cache.
+     */
+    public static int TRANSFORM_CACHE_SIZE = 1 << 16;
+    /**
+     * Maximal number of canonical materials and SketchNodes pooled, 0 to
+     * disable interning.
+     */
+    public static int INTERN_POOL_SIZE = 1 << 16;
+    /**
+     * Rate styles cheapest first and leave the others lazy once the minimum
+     * score falls to LAZY_SCORE_CUTOFF and below the conservation score. At
+     * 0.0, under which no score falls, minimum scores stay exact; above it,
+     * compositions under the cutoff rank by an upper bound of their minimum.
+     */
+    public static boolean LAZY_EVALUATION = true;
+    public static double LAZY_SCORE_CUTOFF = 0.0;
+    /**
+     * Cull incomplete compositions, of which the styles bound the scores of
+     * elongations below the conservation score, from parents.
+     */
+    public static boolean PRUNE_UNVIABLE = true;
+    /**
+     * Reseed from a pool of qualified seeds filled in background. Seeds taken
+     * then depend on the timing of the producer, so runs are no longer
+     * reproducible from their seed.
+     */
+    public static boolean SEED_POOL = false;
+    public static int SEED_POOL_SIZE = 256;
+    /**
+     * Maximal number of seeds pooled per second, 0 for no limit.
+     */
+    public static double SEED_POOL_REFILL_RATE = 0;
+    /**
+     * Maximal number of seeds drawn for a qualified one when the seed pool is
+     * empty; the last one drawn is taken unqualified.
+     */
+    public static int SEED_POOL_FALLBACK_TRIES = 16;
 
     public static String LOG_PATH = "log/";
     public static String LOG_PATH_TEST = "log/test/";
     public static String SER_PATH = "ser/";
+    public static String BATCH_PATH = "batch/";
+    public static String JOURNAL_PATH = "journal/";
+    public static String CHART_PATH = "chart/";
+    /**
+     * Conservatory journal syncs to disk at least every this many records or
+     * milliseconds.
+     */
+    public static int JOURNAL_SYNC_RECORDS = 16;
+    public static long JOURNAL_SYNC_MILLIS = 1000;
 
     public static enum LogState {
 
@@ -15,6 +15,9 @@
  */
 package tech.metacontext.ec.prototype.composer;
 
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import static tech.metacontext.ec.prototype.composer.Settings.*;
@@ -68,6 +71,29 @@ public class Studio {
             double conserve_score,
             LogState logState) throws Exception {
 
+        this(popSize, goalSize, generation, threshold, conserve_score, logState, null);
+    }
+
+    /**
+     *
+     * @param popSize
+     * @param goalSize
+     * @param generation
+     * @param threshold
+     * @param conserve_score
+     * @param logState
+     * @param subscriber subscriber of events of the Composer during
+     * evolution, which may stop it early; null if none.
+     * @throws Exception
+     */
+    public Studio(int popSize,
+            int goalSize,
+            int generation,
+            double threshold,
+            double conserve_score,
+            LogState logState,
+            Flow.Subscriber<? super ComposerEvent> subscriber) throws Exception {
+
         var gsc = new GoldenSectionClimax(UnaccompaniedCello.RANGE.keySet());
         Style[] styles = {new UnaccompaniedCello(), gsc};
         this.composer = new Composer(popSize, ComposerAim.Phrase,
@@ -75,6 +101,12 @@ public class Studio {
         if (generation <= 300) {
             this.composer.ARCHIVE_TO_DISK = false;
         }
+        this.composer.setAdaptive(ADAPTIVE_OPERATORS);
+        if (Objects.nonNull(subscriber)) {
+            this.composer.getPublisher().subscribe(subscriber);
+        }
+        var journal = Path.of(JOURNAL_PATH, composer.getId() + ".journal");
+        this.composer.openJournal(journal);
         System.out.println(header("Evolutionary Computation"));
         System.out.printf("Composer = [%s]\n", composer.getId());
         System.out.println("Population size = " + popSize);
@@ -87,6 +119,8 @@ public class Studio {
         System.out.println("Random Seed = " + RANDOM_SEED);
         System.out.println("Threshold = " + threshold);
         System.out.println("Conserve Score = " + conserve_score);
+        System.out.println("Adaptive = " + ADAPTIVE_OPERATORS);
+        System.out.println("Journal = " + journal);
         System.out.println(header("Evolution"));
         int conserved = 0;
         do {
@@ -106,9 +140,14 @@ public class Studio {
             } else {
                 System.out.print(".");
             }
-        } while (composer.getConservatory().size() < goalSize
-                || composer.getGenCount() < generation);
+        } while (!composer.isStopped()
+                && (composer.getConservatory().size() < goalSize
+                || composer.getGenCount() < generation));
+        composer.close();
         System.out.println(" (" + composer.getGenCount() + ")");
+        if (composer.isAdaptive()) {
+            System.out.println(composer.getController());
+        }
 
         composer.save();
 
@@ -17,6 +17,7 @@ package tech.metacontext.ec.prototype.composer.enums;
 
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
 import tech.metacontext.ec.prototype.composer.Settings;
+import tech.metacontext.ec.prototype.composer.operations.AliasSampler;
 
 /**
  *
@@ -29,8 +30,20 @@ public enum ConnectingState {
 
     public static ConnectingState getRandomState() {
 
-        return Settings.getRandom().nextDouble() < CHANCE_TOTAL_CONNECTING_STATE.getDouble() ?
-                 ConnectingState.Total : ConnectingState.ByItem;
+        return getSampler().sample();
+    }
+
+    /**
+     * Sampler of the parameter set bound to current thread.
+     *
+     * @return the sampler.
+     */
+    public static AliasSampler<ConnectingState> getSampler() {
+
+        return Settings.getParameters().getSampler(ConnectingState.class,
+                () -> AliasSampler.of(values(), cs -> (cs == Total)
+                ? CHANCE_TOTAL_CONNECTING_STATE.getDouble()
+                : 1.0 - CHANCE_TOTAL_CONNECTING_STATE.getDouble()));
     }
 
 }
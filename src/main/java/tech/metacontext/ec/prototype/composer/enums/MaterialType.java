@@ -16,8 +16,14 @@
 package tech.metacontext.ec.prototype.composer.enums;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
-import tech.metacontext.ec.prototype.composer.ex.InstantiationFailedException;
+import java.util.function.Supplier;
+import tech.metacontext.ec.prototype.composer.ParameterSet;
+import tech.metacontext.ec.prototype.composer.Settings;
 import tech.metacontext.ec.prototype.composer.materials.*;
 
 /**
@@ -26,38 +32,47 @@ import tech.metacontext.ec.prototype.composer.materials.*;
  */
 public enum MaterialType implements Serializable{
 
-    DYNAMICS(Dynamics.class),
-    PITCH_SETS(PitchSets.class),
-    RHYTHMIC_POINTS(RhythmicPoints.class),
-    NOTE_RANGES(NoteRanges.class);
+    DYNAMICS(Dynamics::new),
+    PITCH_SETS(PitchSets::new),
+    RHYTHMIC_POINTS(RhythmicPoints::new),
+    NOTE_RANGES(NoteRanges::new);
 
-    Class<? extends MusicMaterial> clazz;
+    private final Supplier<? extends MusicMaterial> constructor;
+    /**
+     * Prototypes with an init applied, by init, together with the parameter
+     * set they were built with.
+     */
+    private final Map<Consumer<?>, Map.Entry<ParameterSet, MusicMaterial>> prototypes
+            = Collections.synchronizedMap(new WeakHashMap<>());
 
-    MaterialType(Class<? extends MusicMaterial> clazz) {
-        this.clazz = clazz;
+    MaterialType(Supplier<? extends MusicMaterial> constructor) {
+        this.constructor = constructor;
     }
 
     public MusicMaterial getInstance() {
 
-        try {
-            return this.clazz.getDeclaredConstructor()
-                    .newInstance();
-        } catch (Exception ex) {
-            System.out.println(this);
-            throw new InstantiationFailedException(ex.getMessage());
-        }
+        return this.constructor.get();
     }
 
+    /**
+     * New material initialized by init. The init is applied once to a
+     * prototype per parameter set, which is then cloned with materials
+     * generated anew, so init has to be deterministic.
+     *
+     * @param <M>
+     * @param init
+     * @return the new material.
+     */
     public <M extends MusicMaterial> M getInstance(Consumer<M> init) {
 
-        try {
-            M instance = (M) this.clazz.getDeclaredConstructor()
-                    .newInstance();
+        var parameters = Settings.getParameters();
+        var prototype = prototypes.get(init);
+        if (Objects.isNull(prototype) || prototype.getKey() != parameters) {
+            M instance = (M) this.constructor.get();
             init.accept(instance);
-            return (M) instance.generate();
-        } catch (Exception ex) {
-            System.out.println(this);
-            throw new InstantiationFailedException(ex.getMessage());
+            prototype = Map.entry(parameters, instance);
+            prototypes.put(init, prototype);
         }
+        return (M) prototype.getValue().regenerate();
     }
 }
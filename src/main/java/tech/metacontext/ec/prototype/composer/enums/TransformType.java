@@ -16,7 +16,9 @@
 package tech.metacontext.ec.prototype.composer.enums;
 
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
-import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
+import tech.metacontext.ec.prototype.composer.Parameters;
+import tech.metacontext.ec.prototype.composer.Settings;
+import tech.metacontext.ec.prototype.composer.operations.AliasSampler;
 
 /**
  *
@@ -24,25 +26,44 @@ import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
  */
 public enum TransformType {
 
-    Repetition(CHANCE_REPETITION.getDouble()),
-    MoveForward(CHANCE_MOVEFORWARD.getDouble()),
-    MoveBackward(CHANCE_MOVEBACKWARD.getDouble()),
-    Retrograde(CHANCE_RETROGRADE.getDouble()),
-    Disconnected(CHANCE_DISCONNECTED.getDouble());
+    Repetition(CHANCE_REPETITION),
+    MoveForward(CHANCE_MOVEFORWARD),
+    MoveBackward(CHANCE_MOVEBACKWARD),
+    Retrograde(CHANCE_RETROGRADE),
+    Disconnected(CHANCE_DISCONNECTED);
 
-    double weighting;
+    private final Parameters weighting;
 
-    private TransformType(double weighting) {
+    private TransformType(Parameters weighting) {
 
         this.weighting = weighting;
     }
 
+    public double getWeighting() {
+
+        return weighting.getDouble();
+    }
+
+    /**
+     * Get a random TransformType. The chance of each type is proportional to
+     * its weighting.
+     *
+     * @return TransformType selected.
+     */
     public static TransformType getRandomType() {
 
-        return getRandom().ints(0, values().length)
-                .mapToObj(i -> values()[i])
-                .filter(tt -> getRandom().nextDouble() < tt.weighting)
-                .findFirst().get();
+        return getSampler().sample();
+    }
+
+    /**
+     * Sampler of the parameter set bound to current thread.
+     *
+     * @return the sampler.
+     */
+    public static AliasSampler<TransformType> getSampler() {
+
+        return Settings.getParameters().getSampler(TransformType.class,
+                () -> AliasSampler.of(values(), TransformType::getWeighting));
     }
 
 }
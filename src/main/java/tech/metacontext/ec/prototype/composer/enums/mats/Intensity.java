@@ -23,26 +23,40 @@ public enum Intensity {
 
     pppp, ppp, pp, p, mp, mf, f, ff, fff, ffff;
 
+    private static final Intensity[] VALUES = values();
+
+    /**
+     * Intensity indexes precomputed for every (intensity, lowest, highest).
+     */
+    private static final double[][][] INTENSITY_TABLE
+            = new double[VALUES.length][VALUES.length][VALUES.length];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            for (int low = 0; low < VALUES.length; low++) {
+                for (int high = 0; high < VALUES.length; high++) {
+                    INTENSITY_TABLE[i][low][high] = (i > high) ? 1.0
+                            : (i < low) ? 0.0
+                                    : 1.0 * (i - low) / (high - low);
+                }
+            }
+        }
+    }
+
     public static double getIntensityIndex(Intensity intensity) {
 
-        return 1.0 * intensity.ordinal() / (values().length - 1);
+        return 1.0 * intensity.ordinal() / (VALUES.length - 1);
     }
 
     public static double getIntensityIndex(Intensity intensity,
             Intensity lowest, Intensity highest) {
 
-        if (intensity.ordinal() > highest.ordinal()) {
-            return 1.0;
-        }
-        if (intensity.ordinal() < lowest.ordinal()) {
-            return 0.0;
-        }
-        return 1.0 * (intensity.ordinal() - lowest.ordinal()) / (highest.ordinal() - lowest.ordinal());
+        return INTENSITY_TABLE[intensity.ordinal()][lowest.ordinal()][highest.ordinal()];
     }
 
     public static Intensity valueOf(int ordinal) {
 
-        return Intensity.values()[ordinal];
+        return VALUES[ordinal];
     }
 
 }
@@ -15,14 +15,12 @@
  */
 package tech.metacontext.ec.prototype.composer.factory;
 
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import tech.metacontext.ec.prototype.composer.model.*;
 import tech.metacontext.ec.prototype.composer.styles.*;
 import tech.metacontext.ec.prototype.abs.Factory;
+import tech.metacontext.ec.prototype.abs.IdAllocator;
 import tech.metacontext.ec.prototype.composer.Settings;
 import tech.metacontext.ec.prototype.composer.enums.ComposerAim;
 
@@ -34,7 +32,7 @@ public class CompositionFactory implements Factory<Composition> {
 
     private static final ConnectorFactory connectorFactory = ConnectorFactory.getInstance();
     private static final SketchNodeFactory sketchNodeFactory = SketchNodeFactory.getInstance();
-    private static final Map<String, CompositionFactory> instances = new HashMap<>();
+    private static final Map<String, CompositionFactory> instances = new ConcurrentHashMap<>();
     private final Composer composer;
 
     public static void main(String[] args) throws Exception {
@@ -62,18 +60,26 @@ public class CompositionFactory implements Factory<Composition> {
 
     public static CompositionFactory getInstance(Composer composer) {
 
-        if (Objects.isNull(instances.get(composer.getId()))) {
-            instances.put(composer.getId(), new CompositionFactory(composer));
-        }
-        return instances.get(composer.getId());
+        return instances.computeIfAbsent(composer.getId(),
+                id -> new CompositionFactory(composer));
+    }
+
+    /**
+     * Release the instance of a Composer no longer in use, as batch runs
+     * create many Composers in one JVM.
+     *
+     * @param composer
+     */
+    public static void release(Composer composer) {
+
+        instances.remove(composer.getId());
     }
 
     public Composition newInstance() {
 
         Composition newInstance = new Composition(composer);
-        Connector conn = connectorFactory.newConnectorWithSeed(composer.getInit());
-        newInstance.addConnector(conn);
-        newInstance.setSeed(conn.getPrevious());
+        newInstance.addConnector(connectorFactory.newConnector());
+        newInstance.setSeed(sketchNodeFactory.newInstance(composer.getInit()));
         return newInstance;
     }
 
@@ -86,56 +92,46 @@ public class CompositionFactory implements Factory<Composition> {
     @Override
     public Composition forArchiving(Composition origin) {
 
-        origin.addDebugMsg("forArchiving: "
-                + origin.getId_prefix() + " been checked/rendered.");
+        origin.trace(DebugTrail.Event.ARCHIVING, composer.getGenCount());
         origin.getRenderedChecked(this.getClass().getSimpleName() + "::forArchiving");
-        Composition dupe = new Composition(this.composer, origin.getId());
-        dupe.getRendered().addAll(origin.getRendered());
-        dupe.getConnectors().addAll(origin.getConnectors().stream()
-                .map(connectorFactory::forArchiving)
-                .collect(Collectors.toList()));
-        dupe.resetSeed(dupe.getConnectors().get(0).getPrevious());
+        Composition dupe = new Composition(this.composer, origin.getNumericId(),
+                origin.getConnectors());
+        dupe.resetSeed(sketchNodeFactory.forArchiving(origin.getSeed()));
+        dupe.setRendered(origin.getRendered());
         dupe.getRenderedChecked("Composition::resetSeed");
-        dupe.updateEval();
         assert origin.getEval().equals(dupe.getEval()) :
                 "unequal: " + origin.getEval() + " vs. " + dupe.getEval();
         return dupe;
     }
 
     /**
-     * Create Composition instance for mutation, with all connector duplicated
-     * with their previous nodes.
+     * Create Composition instance for mutation, sharing the connectors of
+     * origin until mutated, with the seed duplicated.
      *
      * @param origin
      * @return Composition instance ready for mutation.
      */
     public Composition forMutation(Composition origin) {
 
-        origin.addDebugMsg("forMutation: "
-                + origin.getId_prefix() + "been checked/rendered.");
-        Composition dupe = new Composition(this.composer);
-        dupe.getConnectors().addAll(origin.getConnectors().stream()
-                .map(connectorFactory::forMutation)
-                .collect(Collectors.toList()));
+        origin.trace(DebugTrail.Event.MUTATION, composer.getGenCount());
+        Composition dupe = new Composition(this.composer, IdAllocator.next(),
+                origin.getConnectors());
         dupe.resetSeed(sketchNodeFactory.forMutation(origin.getSeed()));
         return dupe;
     }
 
     /**
-     * Create Composition instance for crossover, with a preset first Connector
-     * and its previous node as seed.
+     * Create Composition instance for crossover, with the seed of a parent
+     * duplicated and its first Connector shared.
      *
-     * @param conn
-     * @param styles
+     * @param parent
      * @return Composition instance ready for crossover.
      */
-    public Composition forCrossover(Connector conn,
-            Collection<? extends Style> styles) {
+    public Composition forCrossover(Composition parent) {
 
         Composition newInstance = new Composition(this.composer);
-        Connector dupe = connectorFactory.forMutation(conn);
-        newInstance.addConnector(dupe);
-        newInstance.resetSeed(dupe.getPrevious());
+        newInstance.addConnector(parent.getConnectors().get(0));
+        newInstance.resetSeed(sketchNodeFactory.forMutation(parent.getSeed()));
         return newInstance;
     }
 
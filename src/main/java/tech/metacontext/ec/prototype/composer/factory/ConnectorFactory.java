@@ -15,12 +15,7 @@
  */
 package tech.metacontext.ec.prototype.composer.factory;
 
-import java.util.Objects;
-import java.util.function.Consumer;
-import java.util.stream.Stream;
-import tech.metacontext.ec.prototype.composer.enums.*;
 import tech.metacontext.ec.prototype.composer.model.Connector;
-import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
 
 /**
  *
@@ -28,12 +23,9 @@ import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
  */
 public class ConnectorFactory {
 
-    private static SketchNodeFactory sketchNodeFactory;
     private static ConnectorFactory instance;
 
     private ConnectorFactory() {
-
-        sketchNodeFactory = SketchNodeFactory.getInstance();
     }
 
     public static ConnectorFactory getInstance() {
@@ -44,48 +36,15 @@ public class ConnectorFactory {
         return instance;
     }
 
+    /**
+     * Draw an interned connector, in one draw from the distribution of
+     * connecting states and transform types.
+     *
+     * @return the connector.
+     */
     public Connector newConnector() {
 
-        Connector conn = new Connector();
-        switch (ConnectingState.getRandomState()) {
-            case Total:
-                TransformType tt = TransformType.getRandomType();
-                Stream.of(MaterialType.values())
-                        .forEach(mt -> conn.addTransformType(mt, tt));
-                break;
-            case ByItem:
-                //@todo ByItem: apply special algorithm
-                Stream.of(MaterialType.values())
-                        .forEach(mt -> conn.addTransformType(mt, TransformType.getRandomType()));
-                break;
-        }
-        return conn;
-    }
-
-    public Connector newConnectorWithSeed(Consumer<MusicMaterial> init) {
-
-        Connector conn = newConnector();
-        conn.setPrevious(sketchNodeFactory.newInstance(init));
-        return conn;
-    }
-
-    public Connector forMutation(Connector conn) {
-
-        Connector dupe = new Connector();
-        dupe.getTransformTypes().putAll(conn.getTransformTypes());
-        dupe.setPrevious(Objects.isNull(conn.getPrevious())
-                ? null : sketchNodeFactory.forMutation(conn.getPrevious()));
-        return dupe;
-    }
-
-    public Connector forArchiving(Connector conn) {
-
-        Connector dupe = new Connector(conn.getId());
-        dupe.getTransformTypes().putAll(conn.getTransformTypes());
-        dupe.setPrevious(Objects.isNull(conn.getPrevious())
-                ? null : sketchNodeFactory.forArchiving(conn.getPrevious()));
-        dupe.setNext(Objects.isNull(conn.getNext())
-                ? null : sketchNodeFactory.forArchiving(conn.getNext()));
-        return dupe;
+        //@todo ByItem: apply special algorithm
+        return Connector.getSampler().sample();
     }
 }
@@ -15,19 +15,20 @@
  */
 package tech.metacontext.ec.prototype.composer.factory;
 
-import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
 import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
 import tech.metacontext.ec.prototype.composer.enums.mats.Pitch;
 
 /**
+ * Random pitch sets. A pitch set holds the preset pitches first, in the order
+ * of Pitch, then pitches drawn one by one without replacement, each pitch
+ * class weighted by the number of its spellings available. Classes are
+ * tracked in bit masks, so sampling allocates nothing but the resulting list.
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
  */
@@ -37,6 +38,31 @@ public class PitchSetFactory {
     public static final int DEFAULT_ENHARMONIC_ALLOWED = NOT_ALLOWED;
     public static final int DEFAULT_SHARP_ALLOWED = ALLOWED;
 
+    private static final Pitch[] PITCHES = Pitch.values();
+    /**
+     * Pitch class of every pitch, if enharmonics are distinct or not.
+     */
+    private static final int[][] CLASS = new int[2][PITCHES.length];
+    /**
+     * Number of spellings of every pitch class, indexed by sharp allowed and
+     * enharmonic allowed.
+     */
+    private static final int[][][] WEIGHT = new int[2][2][PITCHES.length];
+
+    static {
+        for (var p : PITCHES) {
+            CLASS[0][p.ordinal()] = p.ordinalEnharmonic();
+            CLASS[1][p.ordinal()] = p.ordinal();
+        }
+        for (int sharp = 0; sharp < 2; sharp++) {
+            for (int enharmonic = 0; enharmonic < 2; enharmonic++) {
+                for (int i = 0; i < range(sharp == 1); i++) {
+                    WEIGHT[sharp][enharmonic][CLASS[enharmonic][i]]++;
+                }
+            }
+        }
+    }
+
     private int minPitchNumber, maxPitchNumber;
     private int pitchNumber;
     /**
@@ -48,9 +74,9 @@ public class PitchSetFactory {
      */
     private boolean enharmonicAllowed;
     /**
-     * 保留音
+     * 保留音, bit i set for Pitch of ordinal i.
      */
-    private final Set<Pitch> presetPitches = new HashSet<>();
+    private int presetMask;
 
     public PitchSetFactory() {
 
@@ -59,7 +85,23 @@ public class PitchSetFactory {
         this.pitchNumber = DEFAULT_PITCH_NUMBER.getInt();
         this.sharpAllowed = (DEFAULT_SHARP_ALLOWED == ALLOWED);
         this.enharmonicAllowed = (DEFAULT_ENHARMONIC_ALLOWED == ALLOWED);
-        this.presetPitches.clear();
+        this.presetMask = 0;
+    }
+
+    /**
+     * Copy of the configuration of a factory. Preset pitches are left out,
+     * as they are state of the last generation rather than configuration.
+     *
+     * @param origin
+     */
+    public PitchSetFactory(PitchSetFactory origin) {
+
+        this.minPitchNumber = origin.minPitchNumber;
+        this.maxPitchNumber = origin.maxPitchNumber;
+        this.pitchNumber = origin.pitchNumber;
+        this.sharpAllowed = origin.sharpAllowed;
+        this.enharmonicAllowed = origin.enharmonicAllowed;
+        this.presetMask = 0;
     }
 
     public void randomize() {
@@ -68,33 +110,103 @@ public class PitchSetFactory {
                 this.maxPitchNumber - this.minPitchNumber + 1) + this.minPitchNumber;
         this.sharpAllowed = (DEFAULT_SHARP_ALLOWED == ALLOWED);
         this.enharmonicAllowed = (DEFAULT_ENHARMONIC_ALLOWED == ALLOWED);
-        this.presetPitches.clear();
+        this.presetMask = 0;
+    }
+
+    /**
+     * Number of pitches available.
+     *
+     * @param sharpAllowed
+     * @return 17 if sharps allowed, 12 otherwise.
+     */
+    static int range(boolean sharpAllowed) {
+
+        return sharpAllowed ? PITCHES.length : 12;
     }
 
     public List<Pitch> generate() {
 
-        List<Pitch> ps = new ArrayList<>();
+        return generate(getRandom());
+    }
+
+    /**
+     * A random pitch set of size between the minimal and maximal pitch
+     * numbers, or of all pitch classes available if fewer.
+     *
+     * @param random
+     * @return the pitch set.
+     */
+    public List<Pitch> generate(Random random) {
+
+        int size = random.nextInt(this.maxPitchNumber - this.minPitchNumber + 1)
+                + this.minPitchNumber;
+        int range = range(sharpAllowed);
+        int[] classOf = CLASS[enharmonicAllowed ? 1 : 0];
+        int[] weight = WEIGHT[sharpAllowed ? 1 : 0][enharmonicAllowed ? 1 : 0];
+        var ps = new ArrayList<Pitch>(Math.min(size, range));
+        int chosen = 0, remaining = range;
         //若不允許升記號則將preset中的升記號以降記號取代
-        if (!this.sharpAllowed && !presetPitches.isEmpty()) {
-            this.setPresetPitches(
-                    this.presetPitches.stream()
-                            .map(pitch -> Pitch.values()[pitch.ordinalEnharmonic()])
-                            .collect(Collectors.toSet()));
+        int preset = sharpAllowed ? presetMask : flatten(presetMask);
+        for (int i = 0; i < range && ps.size() < size; i++) {
+            int c = classOf[i];
+            if ((preset >>> i & 1) == 1 && (chosen >>> c & 1) == 0) {
+                chosen |= 1 << c;
+                remaining -= weight[c];
+                ps.add(PITCHES[c]);
+            }
+        }
+        while (ps.size() < size && remaining > 0) {
+            int r = random.nextInt(remaining), c = 0;
+            while ((chosen >>> c & 1) == 1 || (r -= weight[c]) >= 0) {
+                c++;
+            }
+            chosen |= 1 << c;
+            remaining -= weight[c];
+            ps.add(PITCHES[c]);
         }
-        ps.addAll(Stream.of(Pitch.values())
-                .limit(this.sharpAllowed ? 17 : 12)
-                .map(p -> new AbstractMap.SimpleEntry<>(this.presetPitches.contains(p) ? 0.0 : getRandom().nextDouble(), p))
-                .sorted((o1, o2) -> o1.getKey().compareTo(o2.getKey()))
-                .map(e -> (this.enharmonicAllowed) ? e.getValue().ordinal() : e.getValue().ordinalEnharmonic())
-                .distinct()
-                .map(i -> Pitch.values()[i])
-                //                .limit(this.pitchNumber)
-                .limit(getRandom().nextInt(this.maxPitchNumber - this.minPitchNumber + 1) + this.minPitchNumber)
-                .collect(Collectors.toList())
-        );
         return ps;
     }
 
+    /**
+     * Replace sharps by their enharmonic flats.
+     *
+     * @param mask of pitch ordinals.
+     * @return mask without sharps.
+     */
+    static int flatten(int mask) {
+
+        int flat = mask & 0xFFF;
+        for (int i = 12; i < PITCHES.length; i++) {
+            if ((mask >>> i & 1) == 1) {
+                flat |= 1 << PITCHES[i].ordinalEnharmonic();
+            }
+        }
+        return flat;
+    }
+
+    /**
+     * Select distinct pitches of a pitch set uniformly by Floyd's algorithm.
+     *
+     * @param ps pitch set of distinct pitches.
+     * @param count number of pitches to select, all if more than the set.
+     * @param random
+     * @return mask of the ordinals of the pitches selected.
+     */
+    public static int select(List<Pitch> ps, int count, Random random) {
+
+        int n = ps.size(), indexes = 0, mask = 0;
+        for (int j = n - Math.min(count, n); j < n; j++) {
+            int t = random.nextInt(j + 1);
+            indexes |= 1 << (((indexes >>> t & 1) == 1) ? j : t);
+        }
+        for (int i = 0; i < n; i++) {
+            if ((indexes >>> i & 1) == 1) {
+                mask |= 1 << ps.get(i).ordinal();
+            }
+        }
+        return mask;
+    }
+
     /*
      * Default setters and getters.
      */
@@ -115,12 +227,28 @@ public class PitchSetFactory {
     }
 
     public Set<Pitch> getPreset() {
-        return presetPitches;
+
+        var preset = EnumSet.noneOf(Pitch.class);
+        for (var p : PITCHES) {
+            if ((presetMask >>> p.ordinal() & 1) == 1) {
+                preset.add(p);
+            }
+        }
+        return preset;
     }
 
     public void setPresetPitches(Set<Pitch> preset) {
-        this.presetPitches.clear();
-        this.presetPitches.addAll(preset);
+
+        this.presetMask = 0;
+        preset.forEach(p -> this.presetMask |= 1 << p.ordinal());
+    }
+
+    public int getPresetMask() {
+        return presetMask;
+    }
+
+    public void setPresetMask(int presetMask) {
+        this.presetMask = presetMask;
     }
 
     public int getMinPitchNumber() {
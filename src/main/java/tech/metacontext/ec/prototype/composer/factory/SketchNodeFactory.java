@@ -56,10 +56,19 @@ public class SketchNodeFactory implements Factory<SketchNode> {
         return instance;
     }
 
+    /**
+     * Copy of a node for archiving, the node itself if interned.
+     *
+     * @param origin
+     * @return
+     */
     @Override
     public SketchNode forArchiving(SketchNode origin) {
 
-        SketchNode node = new SketchNode(origin.getId());
+        if (origin.isFrozen()) {
+            return origin;
+        }
+        SketchNode node = new SketchNode(origin.getNumericId());
         node.setMats(origin.getMats().entrySet().stream()
                 .collect(Collectors.toMap(
                         Entry::getKey,
@@ -67,8 +76,17 @@ public class SketchNodeFactory implements Factory<SketchNode> {
         return node;
     }
 
+    /**
+     * Copy of a node for mutation, the node itself if interned.
+     *
+     * @param origin
+     * @return
+     */
     public SketchNode forMutation(SketchNode origin) {
 
+        if (origin.isFrozen()) {
+            return origin;
+        }
         SketchNode node = new SketchNode();
         node.setMats(origin.getMats().entrySet().stream()
                 .collect(Collectors.toMap(
@@ -84,7 +102,7 @@ public class SketchNodeFactory implements Factory<SketchNode> {
                 .collect(Collectors.toMap(
                         t -> t,
                         t -> t.getInstance().random())));
-        return newInstance;
+        return newInstance.intern();
     }
 
     public SketchNode newInstance() {
@@ -94,7 +112,7 @@ public class SketchNodeFactory implements Factory<SketchNode> {
                 .collect(Collectors.toMap(
                         t -> t,
                         t -> t.getInstance())));
-        return newInstance;
+        return newInstance.intern();
     }
 
     public SketchNode newInstance(Consumer<MusicMaterial> init) {
@@ -103,7 +121,7 @@ public class SketchNodeFactory implements Factory<SketchNode> {
         newInstance.setMats(Stream.of(MaterialType.values())
                 .collect(Collectors.toMap(mt -> mt,
                         mt -> mt.getInstance(init))));
-        return newInstance;
+        return newInstance.intern();
     }
 
 }
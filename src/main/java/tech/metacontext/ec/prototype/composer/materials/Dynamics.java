@@ -16,6 +16,8 @@
 package tech.metacontext.ec.prototype.composer.materials;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -53,6 +55,9 @@ public class Dynamics extends MusicMaterial<Intensity> implements Serializable {
     @Override
     public Dynamics duplicate() {
 
+        if (isFrozen()) {
+            return this;
+        }
         return new Dynamics(this);
     }
 
@@ -89,9 +94,24 @@ public class Dynamics extends MusicMaterial<Intensity> implements Serializable {
         return generate();
     }
 
+    @Override
+    List<Object> snapshot() {
+
+        var value = super.snapshot();
+        value.addAll(Arrays.asList(lowestIntensity, highestIntensity));
+        return value;
+    }
+
     @Override
     public Dynamics transform(TransformType type) {
 
+        return (type == TransformType.Disconnected)
+                ? this.<Dynamics>regenerate().intern()
+                : TransformCache.get(this, type, this::compute);
+    }
+
+    private Dynamics compute(TransformType type) {
+
         return switch (type) {
             case Repetition->
                 new Dynamics(this);
@@ -136,6 +156,12 @@ public class Dynamics extends MusicMaterial<Intensity> implements Serializable {
         return this;
     }
 
+    public double getIntensityIndex(Intensity intensity) {
+
+        return Intensity.getIntensityIndex(intensity,
+                this.lowestIntensity, this.highestIntensity);
+    }
+
     @Override
     public String toString() {
 
@@ -150,6 +176,7 @@ public class Dynamics extends MusicMaterial<Intensity> implements Serializable {
     }
 
     public void setLowestIntensity(Intensity lowestIntensity) {
+        checkMutable();
         this.lowestIntensity = lowestIntensity;
     }
 
@@ -158,6 +185,7 @@ public class Dynamics extends MusicMaterial<Intensity> implements Serializable {
     }
 
     public void setHighestIntensity(Intensity highestIntensity) {
+        checkMutable();
         this.highestIntensity = highestIntensity;
     }
 
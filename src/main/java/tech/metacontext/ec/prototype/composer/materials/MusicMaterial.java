@@ -18,19 +18,33 @@ package tech.metacontext.ec.prototype.composer.materials;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import static tech.metacontext.ec.prototype.composer.Settings.INTERN_POOL_SIZE;
+import tech.metacontext.ec.prototype.abs.Interner;
 import tech.metacontext.ec.prototype.composer.enums.TransformType;
 
 /**
+ * Music material of a SketchNode. A material is mutable until interned, after
+ * which it is frozen and canonical: its setters throw, its materials are
+ * unmodifiable, equality is by value with a precomputed hash, and duplicating
+ * it returns itself.
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
  * @param <E>
  */
-public abstract class MusicMaterial<E> implements Serializable {
+public abstract class MusicMaterial<E> implements Serializable, Cloneable {
+
+    private static final Interner<MusicMaterial<?>, MusicMaterial<?>> POOL
+            = new Interner<>(() -> INTERN_POOL_SIZE);
 
     private int division;
     private List<E> materials;
+    private boolean frozen;
+    private transient List<Object> value;
+    private transient int hash;
 
     /**
      * Constructor with specified division and material content.
@@ -77,7 +91,8 @@ public abstract class MusicMaterial<E> implements Serializable {
     abstract public <M extends MusicMaterial> M random();
 
     /**
-     * Material transformation according to ConnectorType.
+     * Material transformation according to ConnectorType. Disconnected draws
+     * a new material from the domain of this one: same division and bounds.
      *
      * @param <M>
      * @param type
@@ -95,10 +110,150 @@ public abstract class MusicMaterial<E> implements Serializable {
 
     abstract public <M extends MusicMaterial> M duplicate();
 
+    /**
+     * Copy of this material as a prototype: same parameters, materials
+     * generated anew, not frozen.
+     *
+     * @param <M>
+     * @return the new material.
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends MusicMaterial> M regenerate() {
+
+        try {
+            var copy = (MusicMaterial<E>) super.clone();
+            copy.frozen = false;
+            copy.value = null;
+            copy.hash = 0;
+            copy.cloneState();
+            return copy.generate();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Replace mutable state shared with the prototype after cloning in
+     * {@link #regenerate()}.
+     */
+    protected void cloneState() {
+    }
+
+    /**
+     * Freeze this material and get the canonical material of its value.
+     *
+     * @param <M>
+     * @return the canonical material, this if none was pooled.
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends MusicMaterial> M intern() {
+
+        if (!frozen) {
+            this.materials = materials.stream()
+                    .map(e -> (e instanceof List) ? (E) List.copyOf((List<?>) e) : e)
+                    .collect(Collectors.toUnmodifiableList());
+            this.frozen = true;
+            this.value = List.copyOf(snapshot());
+            this.hash = Objects.hash(getClass(), value);
+        }
+        return (M) POOL.get(this, m -> m);
+    }
+
+    protected Object readResolve() {
+
+        if (!frozen) {
+            return this;
+        }
+        this.value = List.copyOf(snapshot());
+        this.hash = Objects.hash(getClass(), value);
+        return POOL.get(this, m -> m);
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Throw if this material is frozen. Called by every setter.
+     */
+    protected void checkMutable() {
+
+        if (frozen) {
+            throw new IllegalStateException(
+                    getClass().getSimpleName() + " is interned and immutable.");
+        }
+    }
+
+    /**
+     * Value of this material, which determines the results of its
+     * deterministic transforms.
+     *
+     * @return the value kept if frozen, a snapshot otherwise.
+     */
+    List<Object> getValue() {
+
+        return frozen ? value : snapshot();
+    }
+
+    /**
+     * Hash of the value by its string form, unlike {@link #hashCode()} the
+     * same in every run.
+     *
+     * @return the hash.
+     */
+    public int stableHash() {
+
+        return String.valueOf(getValue()).hashCode();
+    }
+
+    /**
+     * Snapshot of the parameters and materials of this material. Nested lists
+     * are copied as well.
+     *
+     * @return a new list.
+     */
+    List<Object> snapshot() {
+
+        var value = new ArrayList<Object>();
+        value.add(division);
+        value.add(materials.stream()
+                .map(e -> (e instanceof List) ? List.copyOf((List<?>) e) : e)
+                .collect(Collectors.toList()));
+        return value;
+    }
+
     public int size() {
         return this.materials.size();
     }
 
+    @Override
+    public int hashCode() {
+
+        return frozen ? hash : super.hashCode();
+    }
+
+    /**
+     * Frozen materials are equal if of the same class and value; others only
+     * to themselves.
+     *
+     * @param obj
+     * @return
+     */
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+        if (!frozen || !(obj instanceof MusicMaterial)) {
+            return false;
+        }
+        var other = (MusicMaterial<?>) obj;
+        return other.frozen && other.hash == this.hash
+                && other.getClass() == this.getClass()
+                && other.value.equals(this.value);
+    }
+
     /*
    * Default setters and getters.
      */
@@ -107,6 +262,7 @@ public abstract class MusicMaterial<E> implements Serializable {
     }
 
     public void setDivision(int division) {
+        checkMutable();
         this.division = division;
     }
 
@@ -115,6 +271,7 @@ public abstract class MusicMaterial<E> implements Serializable {
     }
 
     public void setMaterials(List<E> materials) {
+        checkMutable();
         this.materials = materials;
     }
 
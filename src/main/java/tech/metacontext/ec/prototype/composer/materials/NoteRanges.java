@@ -15,6 +15,7 @@
  */
 package tech.metacontext.ec.prototype.composer.materials;
 
+import java.util.Arrays;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -31,6 +32,23 @@ import tech.metacontext.ec.prototype.composer.enums.TransformType;
  */
 public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serializable {
 
+    /**
+     * Intensity indexes of all possible range sets, indexed by coverage
+     * (highest - lowest) and then by the range set mask shifted to lowest.
+     */
+    private static final double[][] INTENSITY_TABLE
+            = new double[NoteRange.values().length][];
+
+    static {
+        for (int coverage = 0; coverage < INTENSITY_TABLE.length; coverage++) {
+            int base = getBase(coverage);
+            INTENSITY_TABLE[coverage] = new double[base + 1];
+            for (int bits = 0; bits <= base; bits++) {
+                INTENSITY_TABLE[coverage][bits] = 1.0 * bits / base;
+            }
+        }
+    }
+
     private NoteRange lowestRange;
     private NoteRange highestRange;
 
@@ -47,6 +65,9 @@ public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serial
     @Override
     public NoteRanges duplicate() {
 
+        if (isFrozen()) {
+            return this;
+        }
         return new NoteRanges(this);
     }
 
@@ -84,9 +105,24 @@ public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serial
         return generate();
     }
 
+    @Override
+    List<Object> snapshot() {
+
+        var value = super.snapshot();
+        value.addAll(Arrays.asList(lowestRange, highestRange));
+        return value;
+    }
+
     @Override
     public NoteRanges transform(TransformType type) {
 
+        return (type == TransformType.Disconnected)
+                ? this.<NoteRanges>regenerate().intern()
+                : TransformCache.get(this, type, this::compute);
+    }
+
+    private NoteRanges compute(TransformType type) {
+
         return switch (type) {
             case Repetition->
                 new NoteRanges(this);
@@ -128,20 +164,42 @@ public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serial
     public static double getIntensityIndex(List<NoteRange> rangeSet,
             NoteRange lowest, NoteRange highest) {
 
+        return getIntensityIndex(getMask(rangeSet), lowest, highest);
+    }
+
+    /**
+     * Table-driven intensity index of a range set given as a bit mask of
+     * NoteRange ordinals.
+     *
+     * @param mask bit i set if NoteRange of ordinal i is in the range set.
+     * @param lowest
+     * @param highest
+     * @return intensity index, the same as summing 2^(i - lowest) over the
+     * ranges covered and dividing by the base of the coverage.
+     */
+    public static double getIntensityIndex(int mask,
+            NoteRange lowest, NoteRange highest) {
+
         int low = lowest.ordinal(),
-                hi = highest.ordinal();
-        return IntStream.rangeClosed(low, hi)
-                .filter(i -> rangeSet.contains(NoteRange.valueOf(i)))
-                .mapToDouble(i -> Math.pow(2, i - low))
-                //                .peek(System.out::println)
-                .sum() / getBase(hi - low);
+                coverage = highest.ordinal() - low;
+        if (coverage < 0) {
+            return Double.NaN;
+        }
+        return INTENSITY_TABLE[coverage][(mask >>> low) & getBase(coverage)];
+    }
+
+    public static int getMask(List<NoteRange> rangeSet) {
+
+        int mask = 0;
+        for (NoteRange range : rangeSet) {
+            mask |= 1 << range.ordinal();
+        }
+        return mask;
     }
 
     public static int getBase(int coverage) {
 
-        return IntStream.rangeClosed(0, coverage)
-                .map(p -> (int) Math.pow(2, p))
-                .sum();
+        return (coverage < 0) ? 0 : (1 << (coverage + 1)) - 1;
     }
 
     @Override
@@ -158,6 +216,7 @@ public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serial
     }
 
     public void setLowest(NoteRange lowest) {
+        checkMutable();
         this.lowestRange = lowest;
     }
 
@@ -166,6 +225,7 @@ public class NoteRanges extends MusicMaterial<List<NoteRange>> implements Serial
     }
 
     public void setHighest(NoteRange highest) {
+        checkMutable();
         this.highestRange = highest;
     }
 
@@ -16,14 +16,13 @@
 package tech.metacontext.ec.prototype.composer.materials;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
-import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import java.io.Serializable;
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
 import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
@@ -61,6 +60,7 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
 
         super(origin.getDivision(), origin.getMaterials());
         this.commonTone = origin.commonTone;
+        this.factory = origin.factory;
     }
 
     public PitchSets(Consumer<PitchSets> init) {
@@ -72,6 +72,9 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
     @Override
     public PitchSets duplicate() {
 
+        if (isFrozen()) {
+            return this;
+        }
         PitchSets dupe = new PitchSets();
         dupe.setDivision(this.getDivision());
         dupe.setCommonTone(this.getCommonTone());
@@ -81,6 +84,19 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
         return dupe;
     }
 
+    /**
+     * A factory of the same configuration without preset pitches, so that
+     * regeneration depends on the value of this material only, neither on
+     * the state its last generation left nor on whether it was deserialized,
+     * which leaves no factory.
+     */
+    @Override
+    protected void cloneState() {
+
+        this.factory = Objects.isNull(this.factory) ? new PitchSetFactory()
+                : new PitchSetFactory(this.factory);
+    }
+
     @Override
     public PitchSets reset() {
 
@@ -95,11 +111,14 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
         if (factory.getMinPitchNumber() < this.commonTone) {
             factory.setMinPitchNumber(this.commonTone);
         }
-        this.setMaterials(Stream.generate(factory::generate)
-                .peek(ps -> factory.setPresetPitches(selectPitch(ps, this.commonTone)))
-                .limit(this.getDivision())
-                .collect(Collectors.toList())
-        );
+        var random = getRandom();
+        var sets = new ArrayList<List<Pitch>>(this.getDivision());
+        for (int i = 0; i < this.getDivision(); i++) {
+            var ps = factory.generate(random);
+            factory.setPresetMask(PitchSetFactory.select(ps, this.commonTone, random));
+            sets.add(ps);
+        }
+        this.setMaterials(sets);
         return this;
     }
 
@@ -113,9 +132,24 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
         return this.generate();
     }
 
+    @Override
+    List<Object> snapshot() {
+
+        var value = super.snapshot();
+        value.addAll(Arrays.asList(commonTone));
+        return value;
+    }
+
     @Override
     public PitchSets transform(TransformType type) {
 
+        return (type == TransformType.Disconnected)
+                ? this.<PitchSets>regenerate().intern()
+                : TransformCache.get(this, type, this::compute);
+    }
+
+    private PitchSets compute(TransformType type) {
+
         return switch (type) {
             case Repetition->
                 new PitchSets(this);
@@ -130,14 +164,6 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
         };
     }
 
-    private Set<Pitch> selectPitch(List<Pitch> ps, int commonTone) {
-        Set<Pitch> selected = new HashSet<>();
-        while (selected.size() < commonTone) {
-            selected.add(ps.get(getRandom().nextInt(ps.size())));
-        }
-        return selected;
-    }
-
     private PitchSets retrograde() {
 
         this.setMaterials(IntStream.range(0, this.size())
@@ -200,6 +226,7 @@ public class PitchSets extends MusicMaterial<List<Pitch>> implements Serializabl
     }
 
     public void setCommonTone(int commonTone) {
+        checkMutable();
         this.commonTone = commonTone;
     }
 
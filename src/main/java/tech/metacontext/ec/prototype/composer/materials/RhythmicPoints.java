@@ -16,6 +16,8 @@
 package tech.metacontext.ec.prototype.composer.materials;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -59,6 +61,9 @@ public class RhythmicPoints extends MusicMaterial<Integer> implements Serializab
     @Override
     public RhythmicPoints duplicate() {
 
+        if (isFrozen()) {
+            return this;
+        }
         return new RhythmicPoints(this);
     }
 
@@ -93,8 +98,24 @@ public class RhythmicPoints extends MusicMaterial<Integer> implements Serializab
         return generate();
     }
 
+    @Override
+    List<Object> snapshot() {
+
+        var value = super.snapshot();
+        value.addAll(Arrays.asList(minPoints, maxPoints));
+        return value;
+    }
+
     @Override
     public RhythmicPoints transform(TransformType type) {
+
+        return (type == TransformType.Disconnected)
+                ? this.<RhythmicPoints>regenerate().intern()
+                : TransformCache.get(this, type, this::compute);
+    }
+
+    private RhythmicPoints compute(TransformType type) {
+
         return switch (type) {
             case Repetition->
                 new RhythmicPoints(this);
@@ -139,6 +160,18 @@ public class RhythmicPoints extends MusicMaterial<Integer> implements Serializab
         return this;
     }
 
+    /**
+     * Intensity index of a number of points, normalized by the range of
+     * rhythmic points.
+     *
+     * @param points
+     * @return 0.0 for the minimum and 1.0 for the maximum points.
+     */
+    public double getIntensityIndex(int points) {
+
+        return 1.0 * (points - this.minPoints) / (this.maxPoints - this.minPoints);
+    }
+
     @Override
     public String toString() {
 
@@ -153,6 +186,7 @@ public class RhythmicPoints extends MusicMaterial<Integer> implements Serializab
     }
 
     public void setMin(int min) {
+        checkMutable();
         this.minPoints = min;
     }
 
@@ -161,6 +195,7 @@ public class RhythmicPoints extends MusicMaterial<Integer> implements Serializab
     }
 
     public void setMax(int max) {
+        checkMutable();
         this.maxPoints = max;
     }
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.materials;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import tech.metacontext.ec.prototype.abs.Interner;
+import static tech.metacontext.ec.prototype.composer.Settings.TRANSFORM_CACHE_SIZE;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
+
+/**
+ * Memo of the deterministic material transforms, from (material value,
+ * transform type) to the resulting interned material. The cache holds at most
+ * TRANSFORM_CACHE_SIZE entries and is emptied when full; a size of 0 disables
+ * it.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public final class TransformCache {
+
+    public static void main(String[] args) {
+
+        var motifs = IntStream.range(0, 20)
+                .mapToObj(i -> new Dynamics())
+                .toArray(Dynamics[]::new);
+        IntStream.range(0, 100_000).forEach(i -> motifs[i % motifs.length]
+                .transform(TransformType.values()[i % 4]));
+        System.out.println(summary());
+    }
+
+    private static final Interner<Key, MusicMaterial<?>> CACHE
+            = new Interner<>(() -> TRANSFORM_CACHE_SIZE);
+
+    private TransformCache() {
+    }
+
+    /**
+     * Value of a material and a transform type.
+     */
+    static final class Key {
+
+        private final Class<?> materialClass;
+        private final List<Object> value;
+        private final TransformType type;
+        private final int hash;
+
+        Key(MusicMaterial<?> material, TransformType type) {
+
+            this.materialClass = material.getClass();
+            this.value = material.getValue();
+            this.type = type;
+            this.hash = 31 * (material.isFrozen() ? material.hashCode()
+                    : Objects.hash(materialClass, value)) + type.ordinal();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            var other = (Key) obj;
+            return this.hash == other.hash
+                    && this.type == other.type
+                    && this.materialClass == other.materialClass
+                    && this.value.equals(other.value);
+        }
+    }
+
+    /**
+     * Transformed material, computed and interned on the first request of its
+     * value and type.
+     *
+     * @param <M>
+     * @param material
+     * @param type a deterministic transform type.
+     * @param compute the transform of the material.
+     * @return canonical result of the transform.
+     */
+    @SuppressWarnings("unchecked")
+    static <M extends MusicMaterial<?>> M get(M material, TransformType type,
+            Function<TransformType, M> compute) {
+
+        return (M) CACHE.get(new Key(material, type),
+                key -> compute.apply(type).intern());
+    }
+
+    public static long getHits() {
+        return CACHE.getHits();
+    }
+
+    public static long getMisses() {
+        return CACHE.getMisses();
+    }
+
+    /**
+     * @return number of times the cache was emptied for being full.
+     */
+    public static long getEvictions() {
+        return CACHE.getEvictions();
+    }
+
+    /**
+     * @return share of lookups answered from cache, 0 if none.
+     */
+    public static double getHitRate() {
+        return CACHE.getHitRate();
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Empty the cache and reset its metrics.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    public static String summary() {
+        return "TransformCache" + CACHE;
+    }
+}
@@ -20,29 +20,42 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.awt.Color;
+import java.awt.GraphicsEnvironment;
 import java.awt.geom.Ellipse2D;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 import org.jfree.chart.renderer.category.CategoryItemRenderer;
 import org.jfree.chart.renderer.category.LineAndShapeRenderer;
 import org.jfree.chart.renderer.category.ScatterRenderer;
 import static tech.metacontext.ec.prototype.composer.operations.MutationType.*;
 import static tech.metacontext.ec.prototype.composer.Settings.*;
 import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import static tech.metacontext.ec.prototype.composer.KeyedRandom.Purpose.*;
+import tech.metacontext.ec.prototype.composer.KeyedRandom;
+import tech.metacontext.ec.prototype.composer.ParameterSet;
+import tech.metacontext.ec.prototype.composer.Settings;
 import tech.metacontext.ec.prototype.draw.*;
 import tech.metacontext.ec.prototype.composer.styles.*;
 import tech.metacontext.ec.prototype.composer.factory.*;
@@ -50,6 +63,8 @@ import tech.metacontext.ec.prototype.composer.enums.*;
 import tech.metacontext.ec.prototype.abs.Population;
 import tech.metacontext.ec.prototype.composer.ex.ConservationFailedException;
 import tech.metacontext.ec.prototype.composer.operations.MutationType;
+import tech.metacontext.ec.prototype.composer.operations.AliasSampler;
+import tech.metacontext.ec.prototype.composer.operations.AdaptiveController;
 import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
 
 /**
@@ -71,7 +86,7 @@ public class Composer extends Population<Composition> implements Serializable {
         composer.draw(DRAWTYPE_COMBINEDCHART);
     }
 
-    private static CompositionFactory compositionFactory;
+    private transient CompositionFactory compositionFactory;
     private static ConnectorFactory connectorfactory;
     private static SketchNodeFactory sketchNodeFactory;
 
@@ -81,10 +96,55 @@ public class Composer extends Population<Composition> implements Serializable {
     private double threshold;
     private double conserve_score;
     private Consumer<MusicMaterial> init;
+    /**
+     * Parameter set bound along with every random stream of the Composer.
+     */
+    private ParameterSet parameters;
+    /**
+     * Run seed, from which every random stream of the Composer is derived.
+     */
+    private long seed;
+    /**
+     * Controller of adaptive operator chances and threshold, null if not
+     * adaptive.
+     */
+    private AdaptiveController controller;
+    /**
+     * Completed compositions elongated with their scores before elongation,
+     * to be rewarded after rerendering.
+     */
+    private final Map<Composition, Double> pendingElongations
+            = new LinkedHashMap<>();
 
-    private final Map<Composition, Integer> conservatory = new HashMap<>();
+    private final Map<Composition, Integer> conservatory = new ConcurrentHashMap<>();
+    /**
+     * Publisher of generation summaries and newly conserved compositions,
+     * created on first request.
+     */
+    private transient volatile SubmissionPublisher<ComposerEvent> publisher;
+    private transient volatile boolean stopped;
+    /**
+     * Journal persisting compositions as they are conserved, null if none.
+     */
+    private transient ConservatoryJournal journal;
+    /**
+     * Score statistics recorded generation by generation, for charts.
+     */
+    private transient GenerationStats stats;
+    private transient volatile SeedPool seedPool;
 
+    /**
+     * Archive population of every generation before sketching, to disk if
+     * ARCHIVE_TO_DISK, otherwise in memory.
+     */
+    public boolean ARCHIVE = true;
     public boolean ARCHIVE_TO_DISK = true;
+    /**
+     * Produce children of a generation in parallel. The outcome is the same
+     * as in sequential evolution since every child draws from its own keyed
+     * random stream.
+     */
+    public boolean PARALLEL_EVOLUTION = false;
     public static final int SELECT_FROM_ALL = 0, SELECT_ONLY_COMPLETED = 1;
     public static final int DRAWTYPE_SCATTERPLOT = 0,
             DRAWTYPE_AVERAGELINECHART = 1,
@@ -104,6 +164,8 @@ public class Composer extends Population<Composition> implements Serializable {
             Style... styles) throws Exception {
 
         super(id);
+        this.seed = RANDOM_SEED;
+        this.parameters = Settings.getParameters();
         setup(size, aim, logState, styles);
         this.readArchive();
         this.setGenCount(this.getArchive().size());
@@ -131,12 +193,66 @@ public class Composer extends Population<Composition> implements Serializable {
             double threshold, double conserve_score, Style... styles)
             throws Exception {
 
+        this(RANDOM_SEED, size, aim, logState, threshold, conserve_score, styles);
+    }
+
+    /**
+     * Constructor with explicit run seed, from which the initial population
+     * and every later random stream are derived.
+     *
+     * @param seed
+     * @param size
+     * @param aim
+     * @param logState
+     * @param threshold
+     * @param conserve_score
+     * @param styles
+     * @throws java.lang.Exception
+     */
+    public Composer(long seed, int size, ComposerAim aim, LogState logState,
+            double threshold, double conserve_score, Style... styles)
+            throws Exception {
+
+        this(seed, Settings.getParameters(), size, aim, logState,
+                threshold, conserve_score, styles);
+    }
+
+    /**
+     * Constructor with explicit run seed and parameter set, taking threshold
+     * and conserve score from the parameter set.
+     *
+     * @param seed
+     * @param parameters
+     * @param size
+     * @param aim
+     * @param logState
+     * @param styles
+     * @throws java.lang.Exception
+     */
+    public Composer(long seed, ParameterSet parameters, int size, ComposerAim aim,
+            LogState logState, Style... styles) throws Exception {
+
+        this(seed, parameters, size, aim, logState,
+                parameters.getDouble(SELECTION_THRESHOLD),
+                parameters.getDouble(MIN_CONSERVE_SCORE),
+                styles);
+    }
+
+    public Composer(long seed, ParameterSet parameters, int size, ComposerAim aim,
+            LogState logState, double threshold, double conserve_score,
+            Style... styles) throws Exception {
+
+        this.seed = seed;
+        this.parameters = parameters;
         setup(size, aim, logState, styles);
         getLogger().log(Level.INFO,
                 "Initializing Composition Population...");
-        this.setPopulation(Stream.generate(() -> compositionFactory.newInstance())
-                .limit(size)
-                .peek(c -> c.addDebugMsg("Initialization..."))
+        this.setPopulation(LongStream.range(0, size)
+                .mapToObj(i -> this.withRandom(INITIALIZATION, i, () -> {
+                    var c = compositionFactory.newInstance();
+                    c.trace(DebugTrail.Event.INITIALIZATION, (int) i);
+                    return c;
+                }))
                 .collect(Collectors.toList()));
         getLogger().log(Level.INFO,
                 "Composer created: size = {0}, aim = {1}, styles = {2}",
@@ -167,7 +283,7 @@ public class Composer extends Population<Composition> implements Serializable {
         Composer.connectorfactory = ConnectorFactory.getInstance();
         getLogger().log(Level.INFO,
                 "Initializing CompositionFactory...");
-        Composer.compositionFactory = CompositionFactory.getInstance(this);
+        this.compositionFactory = CompositionFactory.getInstance(this);
         getLogger().log(Level.INFO,
                 "Initializing SketchNodeFactory...");
         Composer.sketchNodeFactory = SketchNodeFactory.getInstance();
@@ -196,23 +312,28 @@ public class Composer extends Population<Composition> implements Serializable {
 
     public Composer sketch() {
 
-        if (ARCHIVE_TO_DISK) {
-            archive(Path.of(SER_PATH, this.getId(), "" + this.getGenCount()), this.getPopulation());
-        } else {
-            this.archive(compositionFactory);
+        this.recordGeneration(this.getPopulation());
+        if (ARCHIVE) {
+            this.withRandom(ARCHIVING, 0, () -> {
+                if (ARCHIVE_TO_DISK) {
+                    archive(Path.of(SER_PATH, this.getId(), "" + this.getGenCount()), this.getPopulation());
+                } else {
+                    this.archive(compositionFactory);
+                }
+                return null;
+            });
         }
 
-        var num_elongated = this.getPopulation().stream()
-//                .parallel()
-                .filter(this::toBeElongated)
-                .peek(c -> getLogger().log(Level.INFO, "Composition {0} been elongated.", c.getId_prefix()))
-                .sequential()
-                .collect(Collectors.counting());
+        var num_elongated = this.withRandom(SKETCH, 0, ()
+                -> this.getPopulation().stream()
+                        .filter(this::toBeElongated)
+                        .peek(c -> getLogger().log(Level.INFO, "Composition {0} been elongated.", c.getId_prefix()))
+                        .collect(Collectors.counting()));
         getLogger().log(Level.INFO,
                 "Composing, totally {0} Compositions been elongated.", num_elongated);
 
         int original = this.getSize();
-        this.getPopulation().removeIf(this::conserve);
+        this.withRandom(SKETCH, 1, () -> this.getPopulation().removeIf(this::conserve));
         if (original - this.getSize() > 0) {
             getLogger().log(Level.INFO,
                     "Composing, {0} Composition(s) conserved.",
@@ -229,37 +350,321 @@ public class Composer extends Population<Composition> implements Serializable {
      * @param composition
      * @return true: to be elongated. false: not to be elongated.
      */
-    private boolean toBeElongated(Composition c) {
-
-        if (aim.isCompleted(c) && getRandom().nextDouble()
-                >= Math.pow(CHANCE_ELONGATION_IF_COMPLETED.getDouble(),
-                        c.getSize() - this.getAim().getAimSize() - 1)) {
-            return false;
+    boolean toBeElongated(Composition c) {
+
+        if (aim.isCompleted(c)) {
+            int exceeding = c.getSize() - this.getAim().getAimSize() - 1;
+            boolean elongating = Objects.isNull(controller)
+                    ? getElongationSampler(exceeding).sample()
+                    : controller.getElongation().sample(exceeding);
+            if (!elongating) {
+                return false;
+            }
+            if (Objects.nonNull(controller)) {
+                pendingElongations.put(c, getMinScore(c));
+            }
         }
         c.elongate();
         return true;
     }
 
+    /**
+     * Elongation sampler of the bound parameter set for the number of
+     * connectors exceeding the aim size.
+     */
+    static AliasSampler<Boolean> getElongationSampler(int exceeding) {
+
+        return Settings.getParameters().getSampler(
+                List.of(CHANCE_ELONGATION_IF_COMPLETED, exceeding),
+                () -> AliasSampler.ofChance(
+                        Math.pow(CHANCE_ELONGATION_IF_COMPLETED.getDouble(), exceeding)));
+    }
+
+    public static AliasSampler<Boolean> getReseedingSampler() {
+
+        return Settings.getParameters().getSampler(CHANCE_RESEEDING,
+                () -> AliasSampler.ofChance(CHANCE_RESEEDING.getDouble()));
+    }
+
+    static AliasSampler<Boolean> getCrossoverSampler() {
+
+        return Settings.getParameters().getSampler(CHANCE_CROSSOVER_IF_COMPLETED,
+                () -> AliasSampler.ofChance(CHANCE_CROSSOVER_IF_COMPLETED.getDouble()));
+    }
+
+    /**
+     * Run a task with the random stream keyed by the run seed, current
+     * generation, index and purpose, and with the parameter set of the
+     * Composer.
+     */
+    <T> T withRandom(KeyedRandom.Purpose purpose, long index, Supplier<T> task) {
+
+        return Settings.withParameters(this.parameters, () -> Settings.withRandom(
+                KeyedRandom.of(this.seed, this.getGenCount(), index, purpose), task));
+    }
+
+    /**
+     * A new seed for reseeding, taken from the seed pool if SEED_POOL is set,
+     * qualified by every style as pooled ones are when the pool is starved.
+     *
+     * @return SketchNode initialized by the styles.
+     */
+    SketchNode newSeed() {
+
+        if (!SEED_POOL) {
+            return sketchNodeFactory.newInstance(init);
+        }
+        return this.getSeedPool().take(() -> sketchNodeFactory.newInstance(init),
+                node -> styles.stream().allMatch(s -> s.qualifySketchNode(node)));
+    }
+
+    /**
+     * Pool of seeds qualified by every style, started on first use. The
+     * producer draws from its own stream keyed by the run seed.
+     *
+     * @return the seed pool.
+     */
+    public SeedPool getSeedPool() {
+
+        var pool = this.seedPool;
+        if (Objects.isNull(pool)) {
+            synchronized (this) {
+                pool = this.seedPool;
+                if (Objects.isNull(pool)) {
+                    var random = KeyedRandom.of(this.seed, 0, 0, SEEDING);
+                    var params = this.parameters;
+                    pool = this.seedPool = new SeedPool(
+                            () -> Settings.withParameters(params, () -> Settings.withRandom(
+                            random, () -> sketchNodeFactory.newInstance(init))),
+                            node -> Settings.withParameters(params, () -> Settings.withRandom(
+                            random, () -> styles.stream().allMatch(s -> s.qualifySketchNode(node)))));
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Render and evaluate every composition in population, so that parents
+     * can be selected concurrently without modifying them.
+     */
+    public void prepare() {
+
+        IntStream.range(0, this.getPopulationSize())
+                .forEach(i -> this.withRandom(PREPARATION, i, () -> {
+            var c = this.getPopulation().get(i);
+            c.getRenderedChecked(this.getClass().getSimpleName() + "::prepare");
+            c.updateEval();
+            return c;
+        }));
+        if (Objects.nonNull(controller)) {
+            pendingElongations.forEach((c, score)
+                    -> controller.recordElongation(getMinScore(c) - score));
+        }
+        pendingElongations.clear();
+    }
+
+    /**
+     * A child with the parent and the operators it came from.
+     */
+    static class Offspring {
+
+        final Composition child, parent;
+        /**
+         * Whether crossover was offered and the decision carried out, so that
+         * the child tells about taking or declining it.
+         */
+        final boolean offered;
+        final boolean crossover, reseeded;
+
+        Offspring(Composition child, Composition parent, boolean offered,
+                boolean crossover, boolean reseeded) {
+
+            this.child = child;
+            this.parent = parent;
+            this.offered = offered;
+            this.crossover = crossover;
+            this.reseeded = reseeded;
+        }
+    }
+
+    /**
+     * Produce a rendered child with the random stream of the attempt index.
+     *
+     * @param index index of attempt in current generation.
+     * @return the child produced.
+     */
+    private Offspring spawn(long index) {
+
+        return this.withRandom(CHILD, index, () -> {
+            var offspring = this.breed();
+            offspring.child.getRenderedChecked(this.getClass().getSimpleName() + "::spawn");
+            return offspring;
+        });
+    }
+
     @Override
     public void evolve() {
 
         getLogger().log(Level.INFO,
                 "Evolving from {0} parents.", this.getPopulationSize());
-        var children = Stream.generate(this::getChild)
-//                .parallel()
-                .filter(c -> !this.conserve(c))
-                .limit(size)
-                .sequential()
-                .collect(Collectors.toList());
+        this.prepare();
+        var children = new ArrayList<Composition>();
+        long attempts = 0;
+        while (children.size() < size) {
+            long from = attempts;
+            var batch = LongStream.range(from, from + size - children.size());
+            var candidates = (PARALLEL_EVOLUTION ? batch.parallel() : batch)
+                    .mapToObj(this::spawn)
+                    .collect(Collectors.toList());
+            attempts += candidates.size();
+            if (Objects.nonNull(controller)) {
+                candidates.forEach(o -> controller.recordChild(o.offered, o.crossover, o.reseeded,
+                        getRawScore(o.child) - getRawScore(o.parent)));
+            }
+            IntStream.range(0, candidates.size())
+                    .filter(i -> !this.withRandom(CONSERVATION, from + i,
+                    () -> this.conserve(candidates.get(i).child)))
+                    .mapToObj(i -> candidates.get(i).child)
+                    .forEach(children::add);
+        }
+        if (Objects.nonNull(controller)) {
+            controller.update();
+            getLogger().log(Level.INFO, "Adapted: {0}", controller);
+        }
         getLogger().log(Level.INFO,
                 "Evloving finished, gen = {0}, size = {1}, {2}",
                 new Object[]{this.getGenCount(),
                     children.size(),
                     getSummary(children)});
         this.setPopulation(children);
+        this.syncJournal();
+        this.publishGeneration(children);
         this.genCountIncrement();
     }
 
+    /**
+     * Publisher of events of this Composer, delivering to subscribers on the
+     * common pool.
+     *
+     * @return the publisher.
+     */
+    public Flow.Publisher<ComposerEvent> getPublisher() {
+
+        return getPublisher(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Publisher of events of this Composer. The executor takes effect only
+     * when the publisher is first created. Events are submitted with
+     * blocking, so a subscriber lagging behind its buffer holds the Composer
+     * back instead of events piling up in memory. Nothing is published
+     * without subscribers.
+     *
+     * @param executor executor delivering events to subscribers.
+     * @return the publisher.
+     */
+    public synchronized Flow.Publisher<ComposerEvent> getPublisher(Executor executor) {
+
+        if (Objects.isNull(publisher)) {
+            publisher = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+        }
+        return publisher;
+    }
+
+    private void publish(Supplier<ComposerEvent> event) {
+
+        var p = this.publisher;
+        if (Objects.nonNull(p) && p.hasSubscribers()) {
+            p.submit(event.get());
+        }
+    }
+
+    void publishGeneration(List<Composition> population) {
+
+        this.publish(() -> new ComposerEvent.Generation(
+                this, this.getGenCount(), population));
+    }
+
+    /**
+     * Complete subscribers, stop seed pool and close journal, no more events
+     * are published afterwards.
+     */
+    public void close() {
+
+        var p = this.publisher;
+        if (Objects.nonNull(p)) {
+            p.close();
+        }
+        var pool = this.seedPool;
+        if (Objects.nonNull(pool)) {
+            pool.close();
+        }
+        this.closeJournal();
+    }
+
+    /**
+     * Persist compositions into the journal as they are conserved, replacing
+     * the journal opened before.
+     *
+     * @param path journal file, appended to if existing.
+     * @throws IOException
+     */
+    public void openJournal(Path path) throws IOException {
+
+        this.closeJournal();
+        this.journal = new ConservatoryJournal(path);
+        getLogger().log(Level.INFO, "Journal opened: {0}", path);
+    }
+
+    public void closeJournal() {
+
+        if (Objects.nonNull(journal)) {
+            try {
+                journal.close();
+            } catch (IOException ex) {
+                getLogger().log(Level.SEVERE, "Error when closing journal {0}: {1}",
+                        new Object[]{journal.getPath(), ex.getMessage()});
+            }
+            this.journal = null;
+        }
+    }
+
+    /**
+     * Sync the journal at the end of a generation, so that no conserved
+     * composition stays unsynced past the generation conserving it.
+     */
+    void syncJournal() {
+
+        if (Objects.nonNull(journal)) {
+            try {
+                journal.syncPending();
+            } catch (IOException ex) {
+                getLogger().log(Level.SEVERE, "Failed to sync journal {0}: {1}",
+                        new Object[]{journal.getPath(), ex.getMessage()});
+            }
+        }
+    }
+
+    public ConservatoryJournal getJournal() {
+
+        return journal;
+    }
+
+    /**
+     * Request the Composer to stop, typically from a subscriber. Evolution
+     * loops check it between generations.
+     */
+    public void stop() {
+
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+
+        return stopped;
+    }
+
     public static String getSummary(List<Composition> list) {
 
         return list.stream()
@@ -276,24 +681,86 @@ public class Composer extends Population<Composition> implements Serializable {
      */
     public Composition getChild() {
 
+        return this.breed().child;
+    }
+
+    private Offspring breed() {
+
+        return this.breed(this.getPopulation());
+    }
+
+    /**
+     * Breed a child from parents selected in the specified pool.
+     *
+     * @param pool compositions to select parents from.
+     * @return the child with its parent and operators.
+     */
+    Offspring breed(List<Composition> pool) {
+
+        return this.breed((criteria, threshold) -> this.select(pool, criteria, threshold));
+    }
+
+    /**
+     * Selection of parents by criteria and threshold, as by
+     * {@link #select(Predicate, double)} over some pool.
+     */
+    @FunctionalInterface
+    interface Selector {
+
+        Composition select(Predicate<Composition> criteria, double threshold);
+    }
+
+    /**
+     * Breed a child from parents chosen by the specified selector.
+     *
+     * @param selector selection of parents.
+     * @return the child with its parent and operators.
+     */
+    Offspring breed(Selector selector) {
+
         /*
             1.若p0 not completed則mutate -> children
             2.若completed則仍有一定機率走mutate -> children
             3.若則選出另一條p1 completed(不能是自己), crossover -> children
          */
-        var p0 = select(SELECT_FROM_ALL, this.threshold);
-        if (this.getAim().isCompleted(p0)
-                && getRandom().nextDouble() < CHANCE_CROSSOVER_IF_COMPLETED.getDouble()) {
-            var p1 = this.select(SELECT_ONLY_COMPLETED, this.threshold);
-            if (!Objects.equals(p0, p1)) {
-                return this.crossover(p0, p1);
+        var p0 = selector.select(criteria(SELECT_FROM_ALL).and(this::isViable),
+                this.getCurrentThreshold());
+        if (Objects.isNull(p0)) {
+            p0 = selector.select(criteria(SELECT_FROM_ALL), this.getCurrentThreshold());
+        }
+        boolean declined = false;
+        if (this.getAim().isCompleted(p0)) {
+            if (Objects.isNull(controller)
+                    ? getCrossoverSampler().sample()
+                    : controller.getCrossover().sample()) {
+                var p1 = selector.select(criteria(SELECT_ONLY_COMPLETED), this.getCurrentThreshold());
+                if (!Objects.equals(p0, p1)) {
+                    boolean reseeding = this.toBeReseeded();
+                    return new Offspring(this.crossover(p0, p1, reseeding), p0,
+                            true, true, reseeding);
+                }
+            } else {
+                declined = true;
             }
         }
-        return this.mutate(p0);
+        boolean reseeding = this.toBeReseeded();
+        return new Offspring(this.mutate(p0, reseeding), p0, declined, false, reseeding);
+    }
+
+    private boolean toBeReseeded() {
+
+        return Objects.isNull(controller)
+                ? getReseedingSampler().sample()
+                : controller.getReseeding().sample();
     }
 
     public Composition mutate(Composition origin) {
 
+        return this.mutate(origin, this.toBeReseeded());
+    }
+
+    private Composition mutate(Composition origin, boolean reseeding) {
+
         var mutant = compositionFactory.forMutation(origin);
         getLogger().log(Level.INFO,
                 "Composition {0} being duplicated to {1} for mutation.",
@@ -315,9 +782,8 @@ public class Composer extends Population<Composition> implements Serializable {
             case Deletion->
                 mutant.getConnectors().remove(selected);
         }
-        boolean reseeding = getRandom().nextDouble() < CHANCE_RESEEDING.getDouble();
         if (reseeding) {
-            mutant.resetSeed(sketchNodeFactory.newInstance(init));
+            mutant.resetSeed(this.newSeed());
         }
         getLogger().log(Level.INFO,
                 "Mutation, mutant: {0}, type: {1}, loci: {2}, reseed = {3}, length: {4} -> {5}",
@@ -332,10 +798,13 @@ public class Composer extends Population<Composition> implements Serializable {
 
     public Composition crossover(Composition p0, Composition p1) {
 
+        return this.crossover(p0, p1, this.toBeReseeded());
+    }
+
+    private Composition crossover(Composition p0, Composition p1, boolean reseeding) {
+
         int index = 1;
-        var child = compositionFactory.forCrossover(
-                p0.getConnectors().get(0),
-                this.styles);
+        var child = compositionFactory.forCrossover(p0);
 
         getLogger().log(Level.INFO,
                 "Composition {0} being transformed to {1} for crossover.",
@@ -345,8 +814,7 @@ public class Composer extends Population<Composition> implements Serializable {
             var activated = getRandom().nextBoolean()
                     ? ((p0.getSize() - 1 > index) ? p0 : p1)
                     : ((p1.getSize() - 1 > index) ? p1 : p0);
-            child.addConnector(connectorfactory
-                    .forMutation(activated.getConnectors().get(index)));
+            child.addConnector(activated.getConnectors().get(index));
             crossover_state += (Objects.equals(activated, p0)) ? "X" : "Y";
         } while (++index < Math.max(p0.getSize() - 1, p1.getSize() - 1));
         getLogger().log(Level.INFO,
@@ -356,19 +824,31 @@ public class Composer extends Population<Composition> implements Serializable {
                     child.getId_prefix(),
                     crossover_state});
 //        child.getRenderedChecked(this.getClass().getSimpleName() + "::crossover");
-        boolean reseeding = getRandom().nextDouble() < CHANCE_RESEEDING.getDouble();
         if (reseeding) {
-            child.resetSeed(sketchNodeFactory.newInstance(init));
+            child.resetSeed(this.newSeed());
         }
         return child;
     }
 
+    /**
+     * Select with the scores stored in CompositionEval, which are brought up to
+     * date by prepare() at the beginning of evolve().
+     *
+     * @param criteria
+     * @param threshold
+     * @return the selected composition, or null if none matches.
+     */
     @Override
     public Composition select(Predicate<Composition> criteria, double threshold) {
 
-        var subset = this.getPopulation().stream()
+        return this.select(this.getPopulation(), criteria, threshold);
+    }
+
+    Composition select(List<Composition> pool, Predicate<Composition> criteria,
+            double threshold) {
+
+        var subset = pool.stream()
                 .filter(criteria)
-                .peek(Composition::updateEval)
                 .sorted((c1, c2) -> (int) (this.getMinScore(c2) - this.getMinScore(c1)))
                 .collect(Collectors.toList());
         if (subset.isEmpty() || threshold > 1.0 || threshold < 0.0) {
@@ -411,8 +891,12 @@ public class Composer extends Population<Composition> implements Serializable {
      */
     public Composition select(int state, double threshold) {
 
-        return select(c -> state == SELECT_FROM_ALL || this.getAim().isCompleted(c),
-                threshold);
+        return select(criteria(state), threshold);
+    }
+
+    private Predicate<Composition> criteria(int state) {
+
+        return c -> state == SELECT_FROM_ALL || this.getAim().isCompleted(c);
     }
 
     /**
@@ -428,12 +912,12 @@ public class Composer extends Population<Composition> implements Serializable {
             return false;
         }
         c.getRenderedChecked(this.getClass().getSimpleName() + "::conserve");
-        c.addDebugMsg("under conservation check.");
+        c.trace(DebugTrail.Event.CONSERVATION_CHECK, this.getGenCount());
         if (getMinScore(c) < conserve_score) {
-            c.addDebugMsg("fail conservation check: " + simpleScoreOutput(c));
+            c.trace(DebugTrail.Event.CONSERVATION_FAILED, DebugTrail.permille(getMinScore(c)));
             return false;
         }
-        c.addDebugMsg("pass conservation check: " + simpleScoreOutput(c));
+        c.trace(DebugTrail.Event.CONSERVATION_PASSED, DebugTrail.permille(getMinScore(c)));
         getLogger().log(Level.INFO, "Qualified Composition been located: {0}",
                 simpleScoreOutput(c));
         getLogger().log(Level.INFO,
@@ -449,6 +933,17 @@ public class Composer extends Population<Composition> implements Serializable {
             getLogger().log(Level.INFO,
                     "Composition {0} been conserved.",
                     c.getId_prefix());
+            if (Objects.nonNull(journal)) {
+                try {
+                    journal.append(dupe, this.getGenCount(), getMinScore(c));
+                } catch (IOException ex) {
+                    getLogger().log(Level.SEVERE, "Failed to journal {0}. {1}",
+                            new Object[]{dupe.getId_prefix(), ex.getMessage()});
+                }
+            }
+            this.getGenerationStats().recordConserved(this.getGenCount(), getMinScore(c));
+            this.publish(() -> new ComposerEvent.Conserved(
+                    this, this.getGenCount(), dupe, getMinScore(c)));
         } else {
             throw new ConservationFailedException(
                     "id = " + dupe.getId_prefix() + ", gen = " + this.getGenCount());
@@ -456,10 +951,95 @@ public class Composer extends Population<Composition> implements Serializable {
         return true;
     }
 
+    /**
+     * Record scores of the population of current generation.
+     *
+     * @param population
+     */
+    void recordGeneration(List<Composition> population) {
+
+        this.getGenerationStats().record(this.getGenCount(),
+                population.stream().mapToDouble(this::getMinScore).toArray());
+        this.getGenerationStats().recordZero(this.getGenCount(), countZero(population));
+    }
+
+    /**
+     * Number of evaluated compositions scoring zero in any style.
+     *
+     * @param population
+     * @return count of zero scores.
+     */
+    int countZero(List<Composition> population) {
+
+        return (int) population.stream()
+                .filter(c -> !c.getEval().getScores().isEmpty())
+                .filter(c -> getRawScore(c) == 0.0)
+                .count();
+    }
+
+    /**
+     * Score statistics by generation. Composers loaded from serialized
+     * objects rebuild them from archive and conservatory in one pass.
+     *
+     * @return the statistics.
+     */
+    public synchronized GenerationStats getGenerationStats() {
+
+        if (Objects.isNull(stats)) {
+            stats = new GenerationStats();
+            IntStream.range(0, this.getArchive().size())
+                    .forEach(i -> {
+                        stats.record(i, this.getArchive().get(i).stream()
+                                .mapToDouble(this::getMinScore).toArray());
+                        stats.recordZero(i, countZero(this.getArchive().get(i)));
+                    });
+            this.conservatory.forEach((c, gen)
+                    -> stats.recordConserved(gen, getMinScore(c)));
+        }
+        return stats;
+    }
+
+    /**
+     * Export score chart as PNG and SVG without any window.
+     *
+     * @param folder
+     * @return path of the PNG file.
+     * @throws IOException
+     */
+    public Path exportCharts(Path folder) throws IOException {
+
+        var exporter = new ChartExporter(this.getGenerationStats(),
+                "Composer " + this.getId(), this.conserve_score);
+        exporter.writeSvg(folder.resolve(this.getId() + ".svg"));
+        return exporter.writePng(folder.resolve(this.getId() + ".png"));
+    }
+
+    /**
+     * Export charts instead of showing windows on headless environments.
+     *
+     * @return true if headless and exported.
+     */
+    private boolean exportIfHeadless() {
+
+        if (!GraphicsEnvironment.isHeadless()) {
+            return false;
+        }
+        try {
+            var path = this.exportCharts(Path.of(CHART_PATH));
+            getLogger().log(Level.INFO, "Headless, charts exported to {0}", path);
+        } catch (IOException ex) {
+            getLogger().log(Level.SEVERE, "Failed to export charts: {0}", ex.getMessage());
+        }
+        return true;
+    }
+
     @Override
     public void draw(int type) {
 
         getLogger().log(Level.INFO, "Drawing Composer {0}", this.getId());
+        if (exportIfHeadless()) {
+            return;
+        }
         switch (type) {
             case 0->
                 drawScatterPlot();
@@ -472,38 +1052,29 @@ public class Composer extends Population<Composition> implements Serializable {
 
     public void drawCombinedChart() {
 
+        if (exportIfHeadless()) {
+            return;
+        }
         var chart = new CombinedChart_AWT("Composer " + this.getId());
-        var list = new ArrayList<Composition>();
-        var avgs = IntStream.range(0, this.getArchive().size())
-                .boxed()
-                .peek(i -> {
-                    list.clear();
-                    list.addAll(this.getArchive().get(i));
-                    list.addAll(this.conservatory.entrySet().stream()
-                            .filter(e -> e.getValue().equals(i))
-                            .map(e -> e.getKey())
-                            .collect(Collectors.toList()));
-                })
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        i -> list.stream()
-                                /*...*/.mapToDouble(this::getMinScore)
-                                /*...*/.filter(score -> score > 0.0)
-                                /*...*/.average().orElse(0.0)));
-
+        // conservatory grouped by generation in one pass.
+        var conserved = this.conservatory.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(e -> this.getMinScore(e.getKey()),
+                                Collectors.toList())));
         var xys = new HashMap<Integer, List<Double>>();
         var xyc = new HashMap<Integer, List<Double>>();
+        var avgs = new HashMap<Integer, Double>();
         IntStream.range(0, this.getArchive().size())
                 .forEach(i -> {
                     xys.put(i, this.getArchive().get(i).stream()
                             .map(this::getMinScore)
                             .filter(score -> score > 0.0)
                             .collect(Collectors.toList()));
-                    xyc.put(i, this.getConservatory().entrySet().stream()
-                            .filter(e -> e.getValue() == i)
-                            .map(e -> e.getKey())
-                            .map(this::getMinScore)
-                            .collect(Collectors.toList()));
+                    xyc.put(i, conserved.getOrDefault(i, List.of()));
+                    avgs.put(i, Stream.concat(xys.get(i).stream(), xyc.get(i).stream())
+                            .mapToDouble(score -> score)
+                            .filter(score -> score > 0.0)
+                            .average().orElse(0.0));
                 });
         double dotSize0 = 3.0;
         double dotSize1 = 4.0;
@@ -534,6 +1105,9 @@ public class Composer extends Population<Composition> implements Serializable {
 
     public void drawAvgLineChart() {
 
+        if (exportIfHeadless()) {
+            return;
+        }
         var chart = new LineChart_AWT("Composer " + this.getId());
         LineChart_AWT chartStat = new LineChart_AWT("Composer " + this.getId());
         IntStream.range(0, this.getArchive().size())
@@ -559,6 +1133,9 @@ public class Composer extends Population<Composition> implements Serializable {
 
     public void drawScatterPlot() {
 
+        if (exportIfHeadless()) {
+            return;
+        }
         var plot = new ScatterPlot_AWT("Composer " + this.getId());
         var popScores = IntStream.range(0, this.getArchive().size())
                 .mapToObj(i
@@ -600,13 +1177,57 @@ public class Composer extends Population<Composition> implements Serializable {
                 : 0.0;
     }
 
+    /**
+     * Whether a composition may still be conserved, so that it is worth
+     * breeding from: completed, or bounded by its styles to no less than the
+     * conservation score in elongations. Compositions not viable are culled
+     * from parents unless none is viable, if PRUNE_UNVIABLE is set.
+     *
+     * @param c
+     * @return true if viable.
+     */
+    public boolean isViable(Composition c) {
+
+        return !PRUNE_UNVIABLE || this.getAim().isCompleted(c)
+                || c.getEval().getUpperBound() >= conserve_score;
+    }
+
+    /**
+     * Whether a minimum score over some styles is low enough to leave the
+     * other styles lazy: at most LAZY_SCORE_CUTOFF, and below the
+     * conservation score so that no composition is conserved by a lazy score.
+     *
+     * @param min minimum score of the styles rated so far.
+     * @return true if the other styles need not be rated.
+     */
+    public boolean isScoreSettled(double min) {
+
+        return LAZY_EVALUATION && min <= LAZY_SCORE_CUTOFF && min < conserve_score;
+    }
+
+    /**
+     * Minimum score among styles regardless of completion, used to measure
+     * improvements of children over their parents.
+     *
+     * @param c
+     * @return minimum score, 0.0 if not evaluated yet.
+     */
+    public double getRawScore(Composition c) {
+
+        return c.getEval().getScores().values().stream()
+                .mapToDouble(s -> s)
+                .min().orElse(0.0);
+    }
+
     public static String simpleScoreOutput(Composition... list) {
 
         StringBuilder report = new StringBuilder();
         Stream.of(list).forEach(composition -> report
                 .append(composition.getId_prefix()).append(" ")
-                .append(composition.getEval().getScores().entrySet().stream()
-                        .map(e -> String.format("%s: %.3f", e.getKey(), e.getValue()))
+                .append(composition.getEval().getStylesByCost().stream()
+                        .map(s -> composition.getEval().isLazy(s)
+                        ? s + ": lazy"
+                        : String.format("%s: %.3f", s, composition.getScore(s)))
                         .collect(Collectors.joining(" | "))));
         return report.toString();
     }
@@ -676,4 +1297,49 @@ public class Composer extends Population<Composition> implements Serializable {
     public void setInit(Consumer<MusicMaterial> init) {
         this.init = init;
     }
+
+    /**
+     * Threshold for selecting parents, adapted by controller if adaptive.
+     *
+     * @return current threshold.
+     */
+    public double getCurrentThreshold() {
+
+        return Objects.isNull(controller) ? threshold : controller.getThreshold();
+    }
+
+    public boolean isAdaptive() {
+
+        return Objects.nonNull(controller);
+    }
+
+    /**
+     * Turn on or off adaptive operator chances and threshold. A new controller
+     * starts from current threshold and the chances in Parameters.
+     *
+     * @param adaptive
+     */
+    public void setAdaptive(boolean adaptive) {
+
+        this.controller = adaptive
+                ? Settings.withParameters(parameters, () -> new AdaptiveController(threshold))
+                : null;
+        this.pendingElongations.clear();
+    }
+
+    public AdaptiveController getController() {
+        return controller;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public ParameterSet getParameters() {
+        return parameters;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import tech.metacontext.ec.prototype.composer.Settings.LogState;
+import tech.metacontext.ec.prototype.composer.enums.ComposerAim;
+import tech.metacontext.ec.prototype.composer.styles.*;
+
+/**
+ * Event published by a Composer, either the summary of a finished generation
+ * or a newly conserved composition.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public abstract class ComposerEvent {
+
+    /**
+     * Stop as soon as 5 compositions scoring above 0.9 are conserved.
+     */
+    public static void main(String[] args) throws Exception {
+
+        var composer = new Composer(50, ComposerAim.Phrase, LogState.DISABLED,
+                new UnaccompaniedCello(),
+                new GoldenSectionClimax(UnaccompaniedCello.getRange()));
+        composer.ARCHIVE_TO_DISK = false;
+        var found = new AtomicInteger();
+        composer.getPublisher().subscribe(new Flow.Subscriber<ComposerEvent>() {
+
+            Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ComposerEvent event) {
+                System.out.println(event);
+                if (event instanceof Conserved
+                        && ((Conserved) event).getScore() > 0.9
+                        && found.incrementAndGet() == 5) {
+                    composer.stop();
+                    subscription.cancel();
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throwable.printStackTrace();
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println("Completed.");
+            }
+        });
+        while (!composer.isStopped() && composer.getGenCount() < 1000) {
+            composer.sketch().evolve();
+        }
+        composer.close();
+    }
+
+    private final String composerId;
+    private final int generation;
+
+    ComposerEvent(Composer composer, int generation) {
+
+        this.composerId = composer.getId();
+        this.generation = generation;
+    }
+
+    public String getComposerId() {
+        return composerId;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Summary of a finished generation.
+     */
+    public static class Generation extends ComposerEvent {
+
+        private final int populationSize;
+        private final int conserved;
+        private final double best;
+        private final double average;
+        private final String summary;
+
+        Generation(Composer composer, int generation, List<Composition> population) {
+
+            super(composer, generation);
+            var scores = population.stream()
+                    .mapToDouble(composer::getMinScore)
+                    .filter(score -> score > 0.0)
+                    .summaryStatistics();
+            this.populationSize = population.size();
+            this.conserved = composer.getConservatory().size();
+            this.best = scores.getCount() > 0 ? scores.getMax() : 0.0;
+            this.average = scores.getAverage();
+            this.summary = Composer.getSummary(population);
+        }
+
+        public int getPopulationSize() {
+            return populationSize;
+        }
+
+        /**
+         * @return size of conservatory at the end of the generation.
+         */
+        public int getConserved() {
+            return conserved;
+        }
+
+        /**
+         * @return best score among completed compositions.
+         */
+        public double getBest() {
+            return best;
+        }
+
+        /**
+         * @return average score of completed compositions.
+         */
+        public double getAverage() {
+            return average;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Generation{gen = %d, size = %d, conserved = %d, "
+                    + "best = %.3f, average = %.3f, %s}",
+                    getGeneration(), populationSize, conserved, best, average, summary);
+        }
+    }
+
+    /**
+     * A composition newly conserved.
+     */
+    public static class Conserved extends ComposerEvent {
+
+        private final Composition composition;
+        private final double score;
+
+        Conserved(Composer composer, int generation, Composition composition, double score) {
+
+            super(composer, generation);
+            this.composition = composition;
+            this.score = score;
+        }
+
+        /**
+         * @return the copy of composition kept in conservatory.
+         */
+        public Composition getComposition() {
+            return composition;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Conserved{gen = %d, %s, score = %.3f}",
+                    getGeneration(), composition.getId_prefix(), score);
+        }
+    }
+}
@@ -21,11 +21,8 @@ import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
-import java.util.OptionalInt;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -64,10 +61,13 @@ public class Composition extends Individual<CompositionEval> implements Serializ
     }
 
     private static ConnectorFactory connectorFactory = ConnectorFactory.getInstance();
-    private static SketchNodeFactory sketchNodeFactory = SketchNodeFactory.getInstance();
-    private LinkedList<Connector> connectors;
-    private LinkedList<SketchNode> rendered;
+    private ConnectorSequence connectors;
+    private RenderCache rendered;
     private SketchNode seed;
+    /**
+     * Count of render cache the eval was updated for.
+     */
+    private long evaluatedCount = -1;
     private transient Composer composer;
 
     /**
@@ -76,12 +76,26 @@ public class Composition extends Individual<CompositionEval> implements Serializ
      * @param composer
      * @param id
      */
-    public Composition(Composer composer, String id) {
+    public Composition(Composer composer, long id) {
 
         super(id);
         setup(composer);
     }
 
+    /**
+     * Constructor sharing the connectors of another composition.
+     *
+     * @param composer
+     * @param id
+     * @param connectors copied in constant time, unchanged by later changes
+     * of either sequence.
+     */
+    public Composition(Composer composer, long id, ConnectorSequence connectors) {
+
+        this(composer, id);
+        this.connectors = new ConnectorSequence(connectors);
+    }
+
     /**
      * Constructor without id specified.
      *
@@ -96,12 +110,12 @@ public class Composition extends Individual<CompositionEval> implements Serializ
     public void setup(Composer composer) {
 
         this.composer = composer;
-        this.rendered = new LinkedList<>();
-        this.connectors = new LinkedList<>();
+        this.rendered = new RenderCache();
+        this.connectors = new ConnectorSequence();
         this.setEval(new CompositionEval(composer.getStyles()));
         //for debugging
-        this.debug = new ArrayList<>();
-        this.addDebugMsg("Initilization completed.");
+        this.debug = DEBUG_TRAIL ? new DebugTrail(DEBUG_TRAIL_CAPACITY) : null;
+        this.trace(DebugTrail.Event.CREATED, composer.getGenCount());
     }
 
     public void elongate() {
@@ -114,27 +128,34 @@ public class Composition extends Individual<CompositionEval> implements Serializ
         this.connectors.add(connector);
     }
 
+    /**
+     * Render nodes from seed through connectors. Rendering is a pure function
+     * of both and the run seed of the Composer, reseeding is left to the
+     * genetic operators of Composer.
+     *
+     * @return rendered nodes, starting with the seed.
+     */
     public List<SketchNode> render() {
 
-        rendered.clear();
-        if (Objects.isNull(seed) || getRandom().nextDouble() < CHANCE_RESEEDING.getDouble()) {
-            resetSeed(sketchNodeFactory.newInstance(this.composer.getInit()));
+        if (Objects.isNull(seed)) {
+            throw new IllegalStateException("No seed to render for " + this.getId_prefix());
         }
-        rendered.add(seed);
-        var previous = new Wrapper<>(seed);
-        /*
-        1. conn.setPrevious(previous.get())
-        2. previous.set(conn.transform())
-        3. return conn.getNext()
-         */
-        rendered.addAll(this.getConnectors().stream()
-                .peek(conn -> conn.setPrevious(previous.get()))
-                .map(Connector::transform)
-                .map(previous::set)
-                .collect(Collectors.toList())
-        );
+        rendered.update(RenderCache.render(seed, this.connectors, composer.getSeed()),
+                this.connectors.getVersion());
 //        System.out.println(this);
-        return rendered;
+        return rendered.getNodes();
+    }
+
+    /**
+     * Take nodes already rendered from the same connectors, as by copies for
+     * archiving.
+     *
+     * @param nodes rendered nodes, consistent with connectors and seed.
+     */
+    public void setRendered(List<SketchNode> nodes) {
+
+        this.rendered.update(nodes, this.connectors.getVersion());
+        assert isConsistent() : "Inconsistent rendered nodes set to " + this.getId_prefix();
     }
 
     public List<SketchNode> getRenderedChecked(String request) {
@@ -144,11 +165,19 @@ public class Composition extends Individual<CompositionEval> implements Serializ
                 new Object[]{this.getId_prefix(), request});
         if (this.ifReRenderRequired()) {
             this.render();
+        }
+        if (this.evaluatedCount != this.rendered.getCount()) {
             updateEval();
         }
-        return this.rendered;
+        return this.rendered.getNodes();
     }
 
+    /**
+     * Whether the rendered nodes are out of date, by comparing the version of
+     * connectors they were rendered from and the seed.
+     *
+     * @return true if rendering required.
+     */
     public boolean ifReRenderRequired() {
 
         if (this.rendered.isEmpty()) {
@@ -157,57 +186,74 @@ public class Composition extends Individual<CompositionEval> implements Serializ
                     this.getId_prefix());
             return true;
         }
-        if (!Objects.equals(this.connectors.getFirst().getPrevious(), this.seed)) {
+        if (!this.rendered.isValid(this.seed, this.connectors.getVersion())) {
             composer.getLogger().log(Level.INFO,
-                    "Seed mismatched, rerendering required for Composition {0}.",
+                    "Seed or connectors modified, rerendering required for Composition {0}.",
                     this.getId_prefix());
             return true;
         }
-        if (this.rendered.size() != this.getSize()) {
-            composer.getLogger().log(Level.INFO,
-                    "Size mismatched: {0} to {1}, rerendering required for Composition {2}.", new Object[]{
-                        this.rendered.size(),
+        composer.getLogger().log(Level.FINE,
+                "Rendered list remained consistant, no rerendering required for {0}.",
+                this.getId_prefix());
+        return false;
+    }
+
+    /**
+     * Full check of rendered nodes against connectors and seed, in linear
+     * time.
+     *
+     * @return true if rendered nodes are consistent with connectors.
+     */
+    boolean isConsistent() {
+
+        var nodes = this.rendered.getNodes();
+        if (nodes.isEmpty() || !Objects.equals(nodes.get(0), this.seed)) {
+            return false;
+        }
+        if (nodes.size() != this.getSize()) {
+            composer.getLogger().log(Level.WARNING,
+                    "Size mismatched: {0} to {1} in Composition {2}.", new Object[]{
+                        nodes.size(),
                         this.getSize(),
                         this.getId_prefix()});
-            return true;
+            return false;
         }
-        if (this.connectors.stream().anyMatch(conn
-                -> Objects.isNull(conn.getPrevious()) || Objects.isNull(conn.getNext()))) {
-            composer.getLogger().log(Level.INFO,
-                    "Connector without connected SketchNode found, rerendering required for Composition {0}.",
+        if (nodes.stream().anyMatch(Objects::isNull)) {
+            composer.getLogger().log(Level.WARNING,
+                    "Null SketchNode found in Composition {0}.",
                     this.getId_prefix());
-            return true;
-        }
-        OptionalInt mismatchIndex = IntStream.range(1, this.getSize())
-                .filter(i
-                        -> !Objects.equals(
-                        this.connectors.get(i - 1).getNext(),
-                        this.rendered.get(i)))
-                .findFirst();
-        if (mismatchIndex.isPresent()) {
-            composer.getLogger().log(Level.INFO,
-                    "Mismatched SketchNodes at {0}, rerendering required for Composition {1}.",
-                    new Object[]{
-                        mismatchIndex.getAsInt(),
-                        this.getId_prefix()});
-            return true;
+            return false;
         }
-        composer.getLogger().log(Level.FINE,
-                "Rendered list remained consistant, no rerendering required for {0}.",
-                this.getId_prefix());
-        return false;
+        return true;
     }
 
+    /**
+     * Rate the styles cheapest first, leaving the rest lazy as soon as the
+     * minimum score is settled by the Composer, then bound the scores of
+     * elongations by every style.
+     */
     public void updateEval() {
 
-        this.getEval().getStyles().stream()
-                .forEach(this::updateScore);
+        // stamped first, as styles may get rendered nodes checked.
+        this.evaluatedCount = this.rendered.getCount();
+        double min = Double.POSITIVE_INFINITY;
+        for (var style : this.getEval().getStylesByCost()) {
+            if (composer.isScoreSettled(min)) {
+                this.getEval().setLazy(style);
+            } else {
+                min = Math.min(min, this.updateScore(style));
+            }
+        }
+        this.getEval().setUpperBound(this.getEval().getStylesByCost().stream()
+                .mapToDouble(style -> style.getUpperBound(this))
+                .min().orElse(1.0));
     }
 
-    public void updateScore(Style style) {
+    public double updateScore(Style style) {
 
-        this.getEval().getScores()
-                .put(style, style.rateComposition(this));
+        double score = style.rateComposition(this);
+        this.getEval().putScore(style, score);
+        return score;
     }
 
     public Double getScore(Style style) {
@@ -246,12 +292,10 @@ public class Composition extends Individual<CompositionEval> implements Serializ
 
     public void resetSeed(SketchNode seed) {
 
-        if (Objects.equals(this.seed, seed) && this.connectors.getFirst().getPrevious().equals(seed)
-                && this.rendered.size() == this.getSize()) {
+        if (Objects.equals(this.seed, seed)) {
             return;
         }
         this.seed = seed;
-        this.connectors.getFirst().setPrevious(seed);
 //        this.getRenderedChecked("Composition::resetSeed");
 //        if (!this.rendered.contains(seed)) {
 //            if (this.rendered.size() < this.getSize()) {
@@ -265,7 +309,7 @@ public class Composition extends Individual<CompositionEval> implements Serializ
 
     @Override
     public int hashCode() {
-        return this.getId().hashCode();
+        return Long.hashCode(this.getNumericId());
     }
 
     @Override
@@ -280,7 +324,7 @@ public class Composition extends Individual<CompositionEval> implements Serializ
             return false;
         }
         final Composition other = (Composition) obj;
-        return Objects.equals(this.getId(), other.getId());
+        return this.getNumericId() == other.getNumericId();
     }
 
     @Override
@@ -292,19 +336,10 @@ public class Composition extends Individual<CompositionEval> implements Serializ
                         super.toString(), this.getSize(), composer.getId(),
                         Composer.simpleScoreOutput(this),
                         this.getSeed())
-                + this.getConnectors().stream()
-                        .peek(c -> {
-                            if (Objects.isNull(c.getPrevious())) {
-                                composer.getLogger().log(Level.WARNING,
-                                        "Null SketchNode found in {0}.getPrevious().", c.getId_prefix());
-                            }
-                            if (Objects.isNull(c.getNext())) {
-                                composer.getLogger().log(Level.WARNING,
-                                        "Null SketchNode found in {0}.getNext().", c.getId_prefix());
-                            }
-                        })
-                        .filter(c -> Objects.nonNull(c.getNext()))
-                        .map(Connector::toStringNext)
+                + IntStream.range(0, Math.min(this.getConnectors().size(),
+                        this.getRendered().size() - 1))
+                        .mapToObj(i -> this.getConnectors().get(i)
+                        .toStringNext(this.getRendered().get(i + 1)))
                         .collect(Collectors.joining("\n"));
         return result;
     }
@@ -312,7 +347,7 @@ public class Composition extends Individual<CompositionEval> implements Serializ
     /*
      * Default setters and getters
      */
-    public LinkedList<Connector> getConnectors() {
+    public ConnectorSequence getConnectors() {
         return connectors;
     }
 
@@ -325,19 +360,25 @@ public class Composition extends Individual<CompositionEval> implements Serializ
     }
 
     public List<SketchNode> getRendered() {
+        return this.rendered.getNodes();
+    }
+
+    public RenderCache getRenderCache() {
         return this.rendered;
     }
 
     /*
-     * For debugging.
+     * For debugging, null unless DEBUG_TRAIL enabled.
      */
-    private List<String> debug;
+    private DebugTrail debug;
 
-    public void addDebugMsg(String msg) {
-        debug.add(msg);
+    public void trace(DebugTrail.Event event, int value) {
+        if (Objects.nonNull(debug)) {
+            debug.add(event, value);
+        }
     }
 
-    public List<String> getDebug() {
+    public DebugTrail getDebug() {
         return debug;
     }
 
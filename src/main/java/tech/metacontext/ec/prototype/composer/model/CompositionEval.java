@@ -17,19 +17,35 @@ package tech.metacontext.ec.prototype.composer.model;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import tech.metacontext.ec.prototype.composer.styles.Style;
 
 /**
+ * Scores of a composition by style. A style left lazy, as its score could not
+ * change the minimum score, has no score rather than a made-up one.
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
  */
 public class CompositionEval implements Serializable {
 
+    public static final Comparator<Style> BY_COST
+            = Comparator.comparingDouble(Style::getEstimatedCost)
+                    .thenComparing(Style::toString);
+
     private final Map<Style, Double> scores;
+    private final Set<Style> lazy = new HashSet<>();
+    /**
+     * Upper bound of the scores of elongations, the minimum over styles.
+     */
+    private double upperBound = 1.0;
 //    private List<Rule> rules;
 
     public CompositionEval(Map<? extends Style, Double> scores) {
@@ -47,11 +63,61 @@ public class CompositionEval implements Serializable {
 
         this.scores = new HashMap<>();
         eval.getScores().forEach(scores::put);
+        this.lazy.addAll(eval.lazy);
+        this.upperBound = eval.upperBound;
     }
 
     public Set<? extends Style> getStyles() {
 
-        return this.getScores().keySet();
+        return Stream.concat(scores.keySet().stream(), lazy.stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Styles in the order of rating, cheapest first.
+     *
+     * @return styles sorted by estimated cost, then by name.
+     */
+    public List<Style> getStylesByCost() {
+
+        return Stream.concat(scores.keySet().stream(), lazy.stream())
+                .sorted(BY_COST)
+                .collect(Collectors.toList());
+    }
+
+    public void putScore(Style style, double score) {
+
+        this.lazy.remove(style);
+        this.scores.put(style, score);
+    }
+
+    /**
+     * Leave a style lazy, removing its score.
+     *
+     * @param style
+     */
+    public void setLazy(Style style) {
+
+        this.scores.remove(style);
+        this.lazy.add(style);
+    }
+
+    public boolean isLazy(Style style) {
+
+        return lazy.contains(style);
+    }
+
+    public Set<Style> getLazy() {
+
+        return Collections.unmodifiableSet(lazy);
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public void setUpperBound(double upperBound) {
+        this.upperBound = upperBound;
     }
 
 //    public void addRule(Rule rule) {
@@ -65,7 +131,7 @@ public class CompositionEval implements Serializable {
             hash = 23 * hash + s.hashCode();
             hash = 23 * hash + this.scores.get(s).hashCode();
         }
-        return hash;
+        return hash + lazy.hashCode();
     }
 
     @Override
@@ -80,7 +146,7 @@ public class CompositionEval implements Serializable {
             return false;
         }
         final CompositionEval other = (CompositionEval) obj;
-        if (this.scores.size() != other.scores.size()) {
+        if (this.scores.size() != other.scores.size() || !this.lazy.equals(other.lazy)) {
             return false;
         }
         return this.scores.entrySet().stream()
@@ -90,7 +156,8 @@ public class CompositionEval implements Serializable {
     @Override
     public String toString() {
 
-        return "CompositionEval{" + "scores=" + scores + '}';
+        return "CompositionEval{" + "scores=" + scores
+                + (lazy.isEmpty() ? "" : ", lazy=" + lazy) + '}';
     }
 
     /*
@@ -15,104 +15,221 @@
  */
 package tech.metacontext.ec.prototype.composer.model;
 
-import java.util.AbstractMap.SimpleEntry;
-import java.util.HashMap;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import tech.metacontext.ec.prototype.composer.KeyedRandom;
+import tech.metacontext.ec.prototype.composer.Settings;
 import tech.metacontext.ec.prototype.composer.enums.*;
-import tech.metacontext.ec.prototype.abs.Individual;
-import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
 import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
+import tech.metacontext.ec.prototype.composer.operations.AliasSampler;
 
 /**
+ * Immutable gene of a Composition: one TransformType per MaterialType, packed
+ * into a code of base TRANSFORM_TYPES. Connectors are flyweights interned in
+ * a table of CODES instances, so equal genes are the same instance. They hold
+ * no SketchNode; nodes are rendered by {@link #transform(SketchNode)} into
+ * the render cache of a Composition.
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
  */
-public class Connector extends Individual {
+public final class Connector implements Serializable {
 
     public static void main(String[] args) {
-        var conn = new Connector();
-        Stream.of(MaterialType.values()).forEach(mt
-                -> conn.addTransformType(mt, TransformType.getRandomType()));
-        System.out.println(conn);
+        var sampler = getSampler();
+        Stream.generate(sampler::sample)
+                .limit(10)
+                .forEach(conn -> System.out.printf("%s p = %.5f\n",
+                conn, sampler.getProbability(conn)));
     }
 
-    private static SketchNodeFactory sketchNodeFactory;
+    private static final MaterialType[] MATERIAL_TYPES = MaterialType.values();
+    private static final TransformType[] TRANSFORM_TYPES = TransformType.values();
+    /**
+     * Number of distinct codes, TRANSFORM_TYPES to the power of MATERIAL_TYPES.
+     */
+    public static final int CODES = (int) Math.pow(TRANSFORM_TYPES.length, MATERIAL_TYPES.length);
+    private static final Connector[] TABLE = IntStream.range(0, CODES)
+            .mapToObj(Connector::new)
+            .toArray(Connector[]::new);
+
+    private final short code;
 
-    private final Map<MaterialType, TransformType> transformTypes;
-    private SketchNode previous;
-    private SketchNode next;
+    private Connector(int code) {
 
-    public Connector() {
+        this.code = (short) code;
+    }
 
-        this.transformTypes = new HashMap<>();
-        sketchNodeFactory = SketchNodeFactory.getInstance();
+    /**
+     * The interned connector of a code.
+     *
+     * @param code
+     * @return the connector.
+     */
+    public static Connector of(int code) {
 
+        return TABLE[Objects.checkIndex(code, CODES)];
     }
 
-    public Connector(String id) {
+    /**
+     * The interned connector of TransformTypes.
+     *
+     * @param transformTypes TransformType of every MaterialType.
+     * @return the connector.
+     */
+    public static Connector of(Map<MaterialType, TransformType> transformTypes) {
+
+        return TABLE[encode(transformTypes)];
+    }
 
-        super(id);
-        this.transformTypes = new HashMap<>();
-        sketchNodeFactory = SketchNodeFactory.getInstance();
+    /**
+     * Distribution of connectors of the parameter set bound to current thread:
+     * with chance CHANCE_TOTAL_CONNECTING_STATE one TransformType drawn for
+     * all MaterialTypes, otherwise one drawn for each.
+     *
+     * @return the sampler.
+     */
+    public static AliasSampler<Connector> getSampler() {
+
+        return Settings.getParameters().getSampler(Connector.class, () -> {
+            var types = TransformType.getSampler();
+            double total = CHANCE_TOTAL_CONNECTING_STATE.getDouble();
+            return AliasSampler.of(TABLE, conn -> {
+                double byItem = 1.0;
+                boolean same = true;
+                for (var mt : MATERIAL_TYPES) {
+                    byItem *= types.getProbability(conn.getTransformType(mt));
+                    same &= conn.getTransformType(mt) == conn.getTransformType(MATERIAL_TYPES[0]);
+                }
+                return (1.0 - total) * byItem + (same
+                        ? total * types.getProbability(conn.getTransformType(MATERIAL_TYPES[0]))
+                        : 0.0);
+            });
+        });
     }
 
-    public void addTransformType(MaterialType mt, TransformType tt) {
+    /**
+     * Code of TransformTypes, the ordinal of the TransformType of each
+     * MaterialType as a digit of base TRANSFORM_TYPES.
+     *
+     * @param transformTypes TransformType of every MaterialType.
+     * @return the code.
+     */
+    public static int encode(Map<MaterialType, TransformType> transformTypes) {
 
-        this.transformTypes.put(mt, tt);
+        int code = 0;
+        for (int i = MATERIAL_TYPES.length - 1; i >= 0; i--) {
+            var tt = Objects.requireNonNull(transformTypes.get(MATERIAL_TYPES[i]),
+                    "TransformType missing: " + MATERIAL_TYPES[i]);
+            code = code * TRANSFORM_TYPES.length + tt.ordinal();
+        }
+        return code;
     }
 
-    public SketchNode transform() {
+    public TransformType getTransformType(MaterialType mt) {
 
-        if (this.previous == null) {
-            return null;
+        int digit = code;
+        for (int i = 0; i < mt.ordinal(); i++) {
+            digit /= TRANSFORM_TYPES.length;
         }
-        this.next = sketchNodeFactory.newInstance();
-//        System.out.println("Connector: " + this.getTransformTypes());
+        return TRANSFORM_TYPES[digit % TRANSFORM_TYPES.length];
+    }
 
-        Map<MaterialType, ? extends MusicMaterial> mats
-                = this.getTransformTypes().entrySet().stream()
-                        .map(e -> new SimpleEntry<>(e.getKey(), this.previous.getMat(e.getKey()).transform(e.getValue())))
-                        .collect(Collectors.toMap(SimpleEntry::getKey,
-                                SimpleEntry::getValue));
-        this.next.setMats(mats);
-        return this.next;
+    /**
+     * Transform a node into the next one as the first of rendering, under the
+     * default run seed.
+     *
+     * @param previous
+     * @return the next node, interned, null if previous is null.
+     * @see #transform(SketchNode, int, long)
+     */
+    public SketchNode transform(SketchNode previous) {
+
+        return transform(previous, 1, Settings.RANDOM_SEED);
     }
 
-    @Override
-    public String toString() {
+    /**
+     * Transform a node into the next one, without any state kept. Materials
+     * Disconnected are generated from a random stream keyed by the run seed,
+     * the previous material and the position, so the next node is a function
+     * of run seed, previous node, connector and position only.
+     *
+     * @param previous
+     * @param position index of the next node in rendered nodes.
+     * @param runSeed seed of the run rendering.
+     * @return the next node, interned, null if previous is null.
+     */
+    public SketchNode transform(SketchNode previous, int position, long runSeed) {
 
-        return super.toString() + getTransformTypes();
+        if (previous == null) {
+            return null;
+        }
+        var node = new SketchNode();
+        Map<MaterialType, MusicMaterial> mats = new EnumMap<>(MaterialType.class);
+        for (var mt : MATERIAL_TYPES) {
+            var type = getTransformType(mt);
+            var mat = previous.getMat(mt);
+            mats.put(mt, (type == TransformType.Disconnected)
+                    ? Settings.<MusicMaterial>withRandom(KeyedRandom.of(
+                            runSeed, position,
+                            (long) mat.stableHash() << 32 | mt.ordinal(),
+                            KeyedRandom.Purpose.RENDERING),
+                            () -> mat.transform(type))
+                    : mat.transform(type));
+        }
+        node.setMats(mats);
+        return node.intern();
     }
 
-    public String toStringNext() {
+    @Override
+    public int hashCode() {
+        return code;
+    }
 
-        return super.toString() + getTransformTypes() + " "
-                + ((next == null) ? "" : "\n => " + next);
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj
+                || obj instanceof Connector && ((Connector) obj).code == this.code;
     }
 
-    /*
-     * Default setters and getters
+    /**
+     * Keep deserialized connectors interned.
      */
-    public SketchNode getPrevious() {
-        return previous;
+    private Object readResolve() {
+        return of(code);
     }
 
-    public void setPrevious(SketchNode previous) {
-        this.previous = previous;
+    @Override
+    public String toString() {
+
+        return "Connector #" + code + getTransformTypes();
     }
 
-    public SketchNode getNext() {
-        return next;
+    public String toStringNext(SketchNode next) {
+
+        return this + " "
+                + ((next == null) ? "" : "\n => " + next);
     }
 
-    public void setNext(SketchNode next) {
-        this.next = next;
+    public int getCode() {
+        return code;
     }
 
+    /**
+     * TransformTypes unpacked from the code.
+     *
+     * @return unmodifiable map of TransformType of every MaterialType.
+     */
     public Map<MaterialType, TransformType> getTransformTypes() {
-        return transformTypes;
-    }
 
+        return Collections.unmodifiableMap(Stream.of(MATERIAL_TYPES)
+                .collect(Collectors.toMap(mt -> mt, this::getTransformType,
+                        (a, b) -> a, () -> new EnumMap<>(MaterialType.class))));
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sequence of the Connectors of a Composition, as a persistent balanced tree.
+ * Changes copy only the path to the locus, O(log n) in time and memory, so a
+ * copy made by {@link #ConnectorSequence(ConnectorSequence)} costs nothing
+ * and shares every unchanged subtree with its origin. Every change, including
+ * replacement by {@link #set}, advances the version, so that a Composition
+ * tells whether its rendered nodes are up to date by comparing the version
+ * they were rendered from.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ConnectorSequence extends AbstractList<Connector>
+        implements Serializable {
+
+    /**
+     * Immutable node of AVL tree, ordered by position.
+     */
+    private static final class Node implements Serializable {
+
+        final Node left, right;
+        final Connector value;
+        final int size, height;
+
+        Node(Node left, Connector value, Node right) {
+
+            this.left = left;
+            this.value = value;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private Node root;
+    private long version;
+
+    public ConnectorSequence() {
+    }
+
+    /**
+     * Copy sharing the whole tree with the origin, in constant time.
+     *
+     * @param origin
+     */
+    public ConnectorSequence(ConnectorSequence origin) {
+
+        this.root = origin.root;
+    }
+
+    @Override
+    public Connector get(int index) {
+
+        checkIndex(index, size());
+        var node = root;
+        while (true) {
+            int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index > left) {
+                index -= left + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    @Override
+    public Connector set(int index, Connector connector) {
+
+        var previous = get(index);
+        root = set(root, index, connector);
+        version++;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Connector connector) {
+
+        checkIndex(index, size() + 1);
+        root = insert(root, index, connector);
+        modified();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Connector> connectors) {
+
+        if (connectors.isEmpty()) {
+            return false;
+        }
+        var all = new Connector[size() + connectors.size()];
+        fill(root, all, 0);
+        int i = size();
+        for (var connector : connectors) {
+            all[i++] = connector;
+        }
+        root = build(all, 0, all.length);
+        modified();
+        return true;
+    }
+
+    @Override
+    public Connector remove(int index) {
+
+        var removed = get(index);
+        root = remove(root, index);
+        modified();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+
+        root = null;
+        modified();
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<Connector> iterator() {
+
+        // in-order traversal with a stack of at most the height of the tree.
+        var stack = new Node[height(root)];
+        return new Iterator<>() {
+
+            int top = push(root, 0);
+
+            private int push(Node node, int top) {
+                for (; node != null; node = node.left) {
+                    stack[top++] = node;
+                }
+                return top;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return top > 0;
+            }
+
+            @Override
+            public Connector next() {
+                if (top == 0) {
+                    throw new NoSuchElementException();
+                }
+                var node = stack[--top];
+                top = push(node.right, top);
+                return node.value;
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+
+        var array = new Object[size()];
+        fill(root, array, 0);
+        return array;
+    }
+
+    /**
+     * Version of the sequence, advanced by every change.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void modified() {
+
+        modCount++;
+        version++;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node set(Node node, int index, Connector connector) {
+
+        int left = size(node.left);
+        if (index < left) {
+            return new Node(set(node.left, index, connector), node.value, node.right);
+        }
+        if (index > left) {
+            return new Node(node.left, node.value, set(node.right, index - left - 1, connector));
+        }
+        return new Node(node.left, connector, node.right);
+    }
+
+    private static Node insert(Node node, int index, Connector connector) {
+
+        if (node == null) {
+            return new Node(null, connector, null);
+        }
+        int left = size(node.left);
+        return index <= left
+                ? balance(insert(node.left, index, connector), node.value, node.right)
+                : balance(node.left, node.value, insert(node.right, index - left - 1, connector));
+    }
+
+    private static Node remove(Node node, int index) {
+
+        int left = size(node.left);
+        if (index < left) {
+            return balance(remove(node.left, index), node.value, node.right);
+        }
+        if (index > left) {
+            return balance(node.left, node.value, remove(node.right, index - left - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        var first = node.right;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return balance(node.left, first.value, remove(node.right, 0));
+    }
+
+    /**
+     * Node of the subtrees and value, rotated if their heights differ by more
+     * than one.
+     */
+    private static Node balance(Node left, Connector value, Node right) {
+
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) < height(left.right)) {
+                var lr = left.right;
+                return new Node(new Node(left.left, left.value, lr.left), lr.value,
+                        new Node(lr.right, value, right));
+            }
+            return new Node(left.left, left.value, new Node(left.right, value, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) < height(right.left)) {
+                var rl = right.left;
+                return new Node(new Node(left, value, rl.left), rl.value,
+                        new Node(rl.right, right.value, right.right));
+            }
+            return new Node(new Node(left, value, right.left), right.value, right.right);
+        }
+        return new Node(left, value, right);
+    }
+
+    private static Node build(Connector[] connectors, int from, int to) {
+
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(build(connectors, from, mid), connectors[mid],
+                build(connectors, mid + 1, to));
+    }
+
+    private static int fill(Node node, Object[] array, int index) {
+
+        if (node == null) {
+            return index;
+        }
+        index = fill(node.left, array, index);
+        array[index++] = node.value;
+        return fill(node.right, array, index);
+    }
+
+    private static void checkIndex(int index, int length) {
+
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
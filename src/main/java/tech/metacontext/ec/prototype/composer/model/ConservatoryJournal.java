@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import tech.metacontext.ec.prototype.composer.enums.MaterialType;
+
+/**
+ * Append-only journal of conserved compositions. Each record is a line of
+ * structured form, followed by the text form of the composition and an end
+ * marker:
+ * <pre>
+ * &#64;&#64; {"composer":"...","id":"...","generation":3,"score":0.9,...}
+ * ...text form...
+ * &#64;&#64; end
+ * </pre> Records are buffered and written through with fsync every
+ * JOURNAL_SYNC_RECORDS records or JOURNAL_SYNC_MILLIS milliseconds, whichever
+ * comes first, at the end of each generation and on closing. A record torn by
+ * interruption lacks its end marker and is skipped by {@link #readRecords}.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ConservatoryJournal implements Closeable {
+
+    public static void main(String[] args) throws Exception {
+
+        var path = Path.of(JOURNAL_PATH, "test.journal");
+        readRecords(path).forEach(System.out::println);
+    }
+
+    public static final String MARK = "@@ ", END = MARK + "end";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final BufferedWriter writer;
+    private final int syncRecords;
+    private final long syncMillis;
+    private int pending;
+    private long lastSync;
+    private long records;
+
+    public ConservatoryJournal(Path path) throws IOException {
+
+        this(path, JOURNAL_SYNC_RECORDS, JOURNAL_SYNC_MILLIS);
+    }
+
+    /**
+     *
+     * @param path journal file, appended to if existing.
+     * @param syncRecords maximal number of records not synced.
+     * @param syncMillis maximal time in milliseconds records stay unsynced.
+     * @throws IOException
+     */
+    public ConservatoryJournal(Path path, int syncRecords, long syncMillis)
+            throws IOException {
+
+        if (Objects.nonNull(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+        this.syncRecords = syncRecords;
+        this.syncMillis = syncMillis;
+        this.lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Append a conserved composition.
+     *
+     * @param composition the copy kept in conservatory.
+     * @param generation generation of conservation.
+     * @param score minimum score of the composition.
+     * @throws IOException
+     */
+    public synchronized void append(Composition composition, int generation,
+            double score) throws IOException {
+
+        writer.write(MARK);
+        writer.write(structured(composition, generation, score));
+        writer.newLine();
+        writer.write(composition.toString());
+        writer.newLine();
+        writer.write(END);
+        writer.newLine();
+        this.records++;
+        if (++this.pending >= syncRecords
+                || System.currentTimeMillis() - lastSync >= syncMillis) {
+            sync();
+        }
+    }
+
+    /**
+     * Write buffered records through to the device.
+     *
+     * @throws IOException
+     */
+    public synchronized void sync() throws IOException {
+
+        writer.flush();
+        channel.force(false);
+        this.pending = 0;
+        this.lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Sync records pending, if any, as at the end of a generation.
+     *
+     * @throws IOException
+     */
+    public synchronized void syncPending() throws IOException {
+
+        if (this.pending > 0) {
+            sync();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (channel.isOpen()) {
+            sync();
+            writer.close();
+        }
+    }
+
+    /**
+     * Compact structured form of a conserved composition in one line. Numbers
+     * are written independent of the default locale, and scores not finite
+     * as null.
+     *
+     * @param c
+     * @param generation
+     * @param score
+     * @return JSON object of the composition.
+     */
+    public static String structured(Composition c, int generation, double score) {
+
+        return String.format(Locale.ROOT, "{\"composer\":%s,\"id\":%s,\"generation\":%d,"
+                + "\"score\":%s,\"scores\":{%s},\"nodes\":[%s]}",
+                quote(c.getComposer().getId()), quote(c.getId()), generation,
+                number(score),
+                c.getEval().getScores().entrySet().stream()
+                        .map(e -> quote(e.getKey().getClass().getSimpleName())
+                        + ":" + number(e.getValue()))
+                        .collect(Collectors.joining(",")),
+                c.getRendered().stream()
+                        .map(node -> Stream.of(MaterialType.values())
+                        .map(mt -> quote(mt.name()) + ":"
+                        + quote(String.valueOf(node.getMat(mt).getMaterials())))
+                        .collect(Collectors.joining(",", "{", "}")))
+                        .collect(Collectors.joining(",")));
+    }
+
+    private static String number(Double d) {
+
+        return Objects.nonNull(d) && Double.isFinite(d)
+                ? String.format(Locale.ROOT, "%.6f", d) : "null";
+    }
+
+    private static String quote(String s) {
+
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Structured forms of the complete records of a journal.
+     *
+     * @param path
+     * @return structured lines, in the order of conservation.
+     * @throws IOException
+     */
+    public static List<String> readRecords(Path path) throws IOException {
+
+        var records = new ArrayList<String>();
+        String current = null;
+        for (var line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.equals(END)) {
+                if (Objects.nonNull(current)) {
+                    records.add(current);
+                }
+                current = null;
+            } else if (line.startsWith(MARK)) {
+                current = line.substring(MARK.length());
+            }
+        }
+        return records;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized long getRecords() {
+        return records;
+    }
+}
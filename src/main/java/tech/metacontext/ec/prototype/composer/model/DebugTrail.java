@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+
+/**
+ * Fixed-capacity ring of debug events of a Composition, each an event code
+ * and an int value. Only the latest events are kept, and nothing is
+ * allocated per event. Compositions carry a trail only if DEBUG_TRAIL is
+ * enabled, otherwise nothing is kept or serialized.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class DebugTrail implements Serializable {
+
+    /**
+     * Serialized size of a trail against the list of messages it replaces.
+     */
+    public static void main(String[] args) throws IOException {
+
+        var trail = new DebugTrail(DEBUG_TRAIL_CAPACITY);
+        var messages = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            trail.add(Event.CONSERVATION_CHECK, i);
+            trail.add(Event.CONSERVATION_FAILED, 850 + i);
+            messages.add("under conservation check.");
+            messages.add("fail conservation check: " + String.format(
+                    "Composition [%s] (UnaccompaniedCello=%.3f, GoldenSectionClimax=%.3f)",
+                    "73bc1ea2-7285", 1.0, 0.85 + i / 1000.0));
+        }
+        System.out.println(trail);
+        System.out.printf("Trail = %d bytes, messages = %d bytes.\n",
+                serializedSize(trail), serializedSize(messages));
+    }
+
+    /**
+     * Events traced on a Composition, with the meaning of their values.
+     */
+    public static enum Event {
+
+        /**
+         * Composition created, value = generation.
+         */
+        CREATED,
+        /**
+         * Initialized as a member of the first generation, value = index.
+         */
+        INITIALIZATION,
+        /**
+         * Duplicated for archiving, value = generation.
+         */
+        ARCHIVING,
+        /**
+         * Duplicated for mutation, value = generation.
+         */
+        MUTATION,
+        /**
+         * Under conservation check, value = generation.
+         */
+        CONSERVATION_CHECK,
+        /**
+         * Failed conservation check, value = minimum score in permille.
+         */
+        CONSERVATION_FAILED,
+        /**
+         * Passed conservation check, value = minimum score in permille.
+         */
+        CONSERVATION_PASSED;
+
+        private static final Event[] VALUES = values();
+    }
+
+    private final byte[] events;
+    private final int[] values;
+    private long count;
+
+    public DebugTrail(int capacity) {
+
+        this.events = new byte[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Score in permille, as the value of conservation events.
+     *
+     * @param score
+     * @return score in permille.
+     */
+    public static int permille(double score) {
+
+        return (int) Math.round(score * 1000);
+    }
+
+    public synchronized void add(Event event, int value) {
+
+        int i = (int) (count++ % events.length);
+        events[i] = (byte) event.ordinal();
+        values[i] = value;
+    }
+
+    /**
+     * Number of events ever added, including the ones overwritten.
+     *
+     * @return count of events.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Number of events kept.
+     *
+     * @return size of the trail.
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, events.length);
+    }
+
+    /**
+     * Kept event, from the oldest.
+     *
+     * @param index between 0 and size() - 1.
+     * @return the event.
+     */
+    public synchronized Event getEvent(int index) {
+        return Event.VALUES[events[slot(index)]];
+    }
+
+    public synchronized int getValue(int index) {
+        return values[slot(index)];
+    }
+
+    private int slot(int index) {
+
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (int) ((count - size() + index) % events.length);
+    }
+
+    public synchronized void clear() {
+
+        count = 0;
+        Arrays.fill(events, (byte) 0);
+        Arrays.fill(values, 0);
+    }
+
+    static int serializedSize(Object o) throws IOException {
+
+        var bytes = new ByteArrayOutputStream();
+        try (var oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(o);
+        }
+        return bytes.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+
+        return IntStream.range(0, size())
+                .mapToObj(i -> getEvent(i) + "(" + getValue(i) + ")")
+                .collect(Collectors.joining(", ",
+                        "DebugTrail{" + (count - size()) + " dropped: ", "}"));
+    }
+}
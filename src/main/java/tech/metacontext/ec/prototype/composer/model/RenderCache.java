@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rendered nodes of a Composition, the phenotype of its seed and connectors,
+ * stamped with the version of connectors they were rendered from.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class RenderCache implements Serializable {
+
+    private final ArrayList<SketchNode> nodes = new ArrayList<>();
+    private long version = -1;
+    private long count;
+
+    /**
+     * Render nodes from a seed through connectors, a pure function of both and
+     * the run seed.
+     *
+     * @param seed
+     * @param connectors
+     * @param runSeed seed of the run, keying materials Disconnected.
+     * @return the seed followed by a node per connector.
+     */
+    public static List<SketchNode> render(SketchNode seed, Iterable<Connector> connectors,
+            long runSeed) {
+
+        var rendered = new ArrayList<SketchNode>();
+        rendered.add(seed);
+        var previous = seed;
+        for (var conn : connectors) {
+            previous = conn.transform(previous, rendered.size(), runSeed);
+            rendered.add(previous);
+        }
+        return rendered;
+    }
+
+    /**
+     * Replace the cached nodes.
+     *
+     * @param rendered nodes, starting with the seed.
+     * @param version version of connectors rendered from.
+     */
+    public void update(List<SketchNode> rendered, long version) {
+
+        this.nodes.clear();
+        this.nodes.addAll(rendered);
+        this.nodes.trimToSize();
+        this.version = version;
+        this.count++;
+    }
+
+    /**
+     * Whether the cached nodes were rendered from the seed and the version of
+     * connectors.
+     *
+     * @param seed
+     * @param version
+     * @return true if up to date.
+     */
+    public boolean isValid(SketchNode seed, long version) {
+
+        return !nodes.isEmpty() && Objects.equals(nodes.get(0), seed)
+                && this.version == version;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public List<SketchNode> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Count of updates, by which evaluations tell if they are up to date.
+     *
+     * @return count of updates.
+     */
+    public long getCount() {
+        return count;
+    }
+}
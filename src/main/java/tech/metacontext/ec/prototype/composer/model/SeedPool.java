@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+import tech.metacontext.ec.prototype.composer.styles.UnaccompaniedCello;
+
+/**
+ * Bounded pool of seed SketchNodes, filled by a background producer with the
+ * nodes accepted by a qualifier, so that reseeding takes a ready seed in
+ * constant time. The producer parks while the pool is full and is woken by
+ * takes; its pace is limited to SEED_POOL_REFILL_RATE seeds per second if
+ * positive. A take from an empty pool is counted as starved and served by the
+ * fallback supplier, drawn up to SEED_POOL_FALLBACK_TRIES times for a seed the
+ * qualifier of the taker accepts; the last one drawn is taken unqualified if
+ * none is. Candidates the generator or qualifier fail on are counted, logged
+ * and skipped without stopping the producer.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class SeedPool implements Closeable {
+
+    public static void main(String[] args) throws Exception {
+
+        var cello = new UnaccompaniedCello();
+        var factory = SketchNodeFactory.getInstance();
+        try (var pool = new SeedPool(() -> factory.newInstance(cello::matInitializer),
+                cello::qualifySketchNode, 64, 0)) {
+            Thread.sleep(1000);
+            for (int i = 0; i < 1000; i++) {
+                pool.take(() -> factory.newInstance(cello::matInitializer),
+                        cello::qualifySketchNode);
+            }
+            System.out.println(pool);
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(SeedPool.class.getName());
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Queue<SketchNode> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long intervalNanos;
+    private final Supplier<SketchNode> generator;
+    private final Predicate<SketchNode> qualifier;
+    private final Thread producer;
+    private volatile boolean running = true;
+
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder taken = new LongAdder();
+    private final LongAdder starved = new LongAdder();
+    private final LongAdder unqualified = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public SeedPool(Supplier<SketchNode> generator, Predicate<SketchNode> qualifier) {
+
+        this(generator, qualifier, SEED_POOL_SIZE, SEED_POOL_REFILL_RATE);
+    }
+
+    /**
+     * Start the producer filling the pool.
+     *
+     * @param generator supplier of candidate seeds, called by the producer
+     * only.
+     * @param qualifier predicate a seed has to satisfy to be pooled, called by
+     * the producer only.
+     * @param capacity maximal number of seeds pooled.
+     * @param refillRate maximal number of seeds pooled per second, 0 for no
+     * limit.
+     */
+    public SeedPool(Supplier<SketchNode> generator, Predicate<SketchNode> qualifier,
+            int capacity, double refillRate) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of seed pool must be positive.");
+        }
+        this.generator = generator;
+        this.qualifier = qualifier;
+        this.capacity = capacity;
+        this.intervalNanos = refillRate > 0.0 ? (long) (1e9 / refillRate) : 0L;
+        this.producer = new Thread(this::produce, "SeedPool");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce() {
+
+        while (running) {
+            if (size.get() >= capacity) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                continue;
+            }
+            SketchNode node;
+            try {
+                node = generator.get();
+                if (!qualifier.test(node)) {
+                    rejected.increment();
+                    continue;
+                }
+            } catch (RuntimeException ex) {
+                failed.increment();
+                LOGGER.log(Level.WARNING, "Failed to produce a seed.", ex);
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                continue;
+            }
+            queue.offer(node);
+            size.incrementAndGet();
+            produced.increment();
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Take a pooled seed, or one from the fallback if the pool is empty.
+     *
+     * @param fallback supplier of a seed when starved, called by the taking
+     * thread.
+     * @return a seed.
+     */
+    public SketchNode take(Supplier<SketchNode> fallback) {
+
+        return take(fallback, node -> true);
+    }
+
+    /**
+     * Take a pooled seed, or a qualified one from the fallback if the pool is
+     * empty.
+     *
+     * @param fallback supplier of a seed when starved, called by the taking
+     * thread.
+     * @param qualifier predicate a seed from the fallback has to satisfy,
+     * called by the taking thread.
+     * @return a seed.
+     */
+    public SketchNode take(Supplier<SketchNode> fallback, Predicate<SketchNode> qualifier) {
+
+        var node = queue.poll();
+        if (node == null) {
+            starved.increment();
+            LockSupport.unpark(producer);
+            for (int tries = 1;; tries++) {
+                node = fallback.get();
+                if (qualifier.test(node)) {
+                    return node;
+                }
+                if (tries >= SEED_POOL_FALLBACK_TRIES) {
+                    unqualified.increment();
+                    return node;
+                }
+            }
+        }
+        if (size.getAndDecrement() == capacity) {
+            LockSupport.unpark(producer);
+        }
+        taken.increment();
+        return node;
+    }
+
+    /**
+     * Stop the producer; seeds pooled can still be taken.
+     */
+    @Override
+    public void close() {
+
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    public boolean isRunning() {
+        return running && producer.isAlive();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of seeds pooled by the producer.
+     */
+    public long getProduced() {
+        return produced.sum();
+    }
+
+    /**
+     * @return number of candidates rejected by the qualifier.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return number of takes served from the pool.
+     */
+    public long getTaken() {
+        return taken.sum();
+    }
+
+    /**
+     * @return number of takes served by the fallback.
+     */
+    public long getStarved() {
+        return starved.sum();
+    }
+
+    /**
+     * @return number of starved takes served by a seed not qualified.
+     */
+    public long getUnqualified() {
+        return unqualified.sum();
+    }
+
+    /**
+     * @return number of candidates the generator or qualifier failed on.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Share of takes served by the fallback.
+     *
+     * @return the rate, 0.0 if nothing taken.
+     */
+    public double getStarvationRate() {
+
+        long s = getStarved(), total = getTaken() + s;
+        return total > 0 ? 1.0 * s / total : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SeedPool{size = %d/%d, produced = %d, rejected = %d, "
+                + "taken = %d, starved = %d (%.2f%%), unqualified = %d, failed = %d}",
+                size(), capacity, getProduced(), getRejected(), getTaken(),
+                getStarved(), getStarvationRate() * 100, getUnqualified(), getFailed());
+    }
+}
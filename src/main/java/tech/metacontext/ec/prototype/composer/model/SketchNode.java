@@ -16,16 +16,26 @@
 package tech.metacontext.ec.prototype.composer.model;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Settings.INTERN_POOL_SIZE;
 import tech.metacontext.ec.prototype.abs.Individual;
+import tech.metacontext.ec.prototype.abs.Interner;
 import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
 import tech.metacontext.ec.prototype.composer.enums.MaterialType;
 import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
 
 /**
+ * A node of rendered composition. Once interned, a SketchNode is frozen and
+ * canonical for its materials, so equal nodes are shared by the whole
+ * population together with whatever is memoized on them.
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
  */
@@ -38,9 +48,14 @@ public class SketchNode extends Individual implements Serializable {
                 .forEach(System.out::println);
     }
 
+    private static final Interner<Map<MaterialType, ? extends MusicMaterial>, SketchNode> POOL
+            = new Interner<>(() -> INTERN_POOL_SIZE);
+
     private Map<MaterialType, ? extends MusicMaterial> musicMats;
+    private boolean frozen;
+    private transient volatile Map<Object, Object> memo;
 
-    public SketchNode(String id) {
+    public SketchNode(long id) {
 
         super(id);
         this.musicMats = new HashMap<>();
@@ -56,6 +71,59 @@ public class SketchNode extends Individual implements Serializable {
         return musicMats.get(type);
     }
 
+    /**
+     * Intern the materials, freeze this node and get the canonical node of
+     * the materials.
+     *
+     * @return the canonical node, this if none was pooled.
+     */
+    public SketchNode intern() {
+
+        if (!frozen) {
+            var mats = new EnumMap<MaterialType, MusicMaterial>(MaterialType.class);
+            musicMats.forEach((mt, mm) -> mats.put(mt, mm.intern()));
+            this.musicMats = Collections.unmodifiableMap(mats);
+            this.frozen = true;
+        }
+        return POOL.get(musicMats, mats -> this);
+    }
+
+    private Object readResolve() {
+
+        return frozen ? POOL.get(musicMats, mats -> this) : this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Value derived from this node, computed once per key if the node is
+     * frozen and then shared by every composition holding the node.
+     *
+     * @param <T>
+     * @param key identifies the derivation, such as the style computing it.
+     * @param compute
+     * @return the value memoized, computed on every call if not frozen.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T memoize(Object key, Function<SketchNode, T> compute) {
+
+        if (!frozen) {
+            return compute.apply(this);
+        }
+        var m = memo;
+        if (Objects.isNull(m)) {
+            synchronized (this) {
+                if (Objects.isNull(memo)) {
+                    memo = new ConcurrentHashMap<>();
+                }
+                m = memo;
+            }
+        }
+        return (T) m.computeIfAbsent(key, k -> compute.apply(this));
+    }
+
     @Override
     public String toString() {
         return super.toString() + "{"
@@ -76,6 +144,9 @@ public class SketchNode extends Individual implements Serializable {
     }
 
     public void setMats(Map<MaterialType, ? extends MusicMaterial> mats) {
+        if (frozen) {
+            throw new IllegalStateException("SketchNode is interned and immutable.");
+        }
         this.musicMats = mats;
     }
 
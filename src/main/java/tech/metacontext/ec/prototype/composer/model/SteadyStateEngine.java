@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static tech.metacontext.ec.prototype.composer.KeyedRandom.Purpose.*;
+import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
+import tech.metacontext.ec.prototype.composer.Settings.LogState;
+import tech.metacontext.ec.prototype.composer.enums.ComposerAim;
+import tech.metacontext.ec.prototype.composer.styles.*;
+
+/**
+ * Steady-state evolution of a Composer. Workers continuously select parents
+ * from the shared population, breed and evaluate a child, conserve it if
+ * qualified, or otherwise put it into the population in place of the worst
+ * composition. There is no generation barrier; every size births count as a
+ * generation of the Composer.
+ * <p>
+ * The outcome depends on the scheduling of workers, so unlike
+ * Composer::evolve it is not reproducible with multiple workers.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class SteadyStateEngine {
+
+    public static void main(String[] args) throws Exception {
+
+        var composer = new Composer(50, ComposerAim.Phrase, LogState.DISABLED,
+                new UnaccompaniedCello(),
+                new GoldenSectionClimax(UnaccompaniedCello.getRange()));
+        var engine = new SteadyStateEngine(composer,
+                Runtime.getRuntime().availableProcessors());
+        long start = System.currentTimeMillis();
+        while (composer.getConservatory().isEmpty() && composer.getGenCount() < 300) {
+            engine.run(composer.getSize() * 10);
+            System.out.printf("gen = %d, worst = %.3f, best = %.3f\n",
+                    composer.getGenCount(),
+                    composer.getMinScore(engine.getWorst()),
+                    composer.getMinScore(engine.getBest()));
+        }
+        System.out.printf("%d births in %d ms, %d conserved.\n",
+                engine.getBirths(), System.currentTimeMillis() - start,
+                composer.getConservatory().size());
+    }
+
+    /**
+     * A composition with the scores it is ranked by, fixed when entering the
+     * population.
+     */
+    private static class Ranked {
+
+        final Composition composition;
+        final double score, rawScore;
+
+        Ranked(Composer composer, Composition composition) {
+
+            this.composition = composition;
+            this.score = composer.getMinScore(composition);
+            this.rawScore = composer.getRawScore(composition);
+        }
+    }
+
+    private static final Comparator<Ranked> RANKING
+            = Comparator.<Ranked>comparingDouble(r -> r.score)
+                    .thenComparingDouble(r -> r.rawScore)
+                    .thenComparingLong(r -> r.composition.getNumericId());
+
+    private final Composer composer;
+    private final int workers;
+    private final ConcurrentSkipListSet<Ranked> population;
+    private final AtomicLong births;
+
+    /**
+     * Constructor. The population of Composer is elongated as in
+     * Composer::sketch, rendered and evaluated, and taken over by the engine
+     * until the end of each run. Children are elongated the same way before
+     * entering the population.
+     *
+     * @param composer Composer not in adaptive mode.
+     * @param workers number of worker threads.
+     */
+    public SteadyStateEngine(Composer composer, int workers) {
+
+        if (composer.isAdaptive()) {
+            throw new IllegalStateException(
+                    "Steady-state evolution works with fixed operator chances only.");
+        }
+        this.composer = composer;
+        this.workers = Math.max(1, workers);
+        this.births = new AtomicLong();
+        this.population = new ConcurrentSkipListSet<>(RANKING);
+        composer.withRandom(SKETCH, 0, () -> composer.getPopulation().stream()
+                .filter(composer::toBeElongated)
+                .count());
+        composer.prepare();
+        composer.getPopulation().stream()
+                .map(c -> new Ranked(composer, c))
+                .forEach(population::add);
+    }
+
+    /**
+     * Run until the specified number of births, then write the population,
+     * best first, back to Composer.
+     *
+     * @param births number of births of this run.
+     * @throws InterruptedException
+     */
+    public void run(long births) throws InterruptedException {
+
+        long limit = this.births.get() + births;
+        var executor = Executors.newFixedThreadPool(workers);
+        try {
+            var futures = IntStream.range(0, workers)
+                    .mapToObj(i -> executor.submit(() -> this.work(limit)))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            composer.getLogger().log(Level.SEVERE,
+                    "Steady-state evolution failed: {0}", ex.getCause());
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+            this.births.set(Math.min(this.births.get(), limit));
+        }
+        composer.setPopulation(this.getPopulation());
+    }
+
+    private void work(long limit) {
+
+        long birth;
+        while (!composer.isStopped() && (birth = births.getAndIncrement()) < limit) {
+            long index = birth;
+            var child = composer.withRandom(BIRTH, index, () -> {
+                var c = composer.breed(this::select).child;
+                composer.toBeElongated(c);
+                c.getRenderedChecked(this.getClass().getSimpleName() + "::work");
+                return c;
+            });
+            if (!composer.withRandom(CONSERVATION, index, () -> composer.conserve(child))) {
+                population.add(new Ranked(composer, child));
+                population.pollFirst();
+            }
+            if ((index + 1) % composer.getSize() == 0) {
+                composer.recordGeneration(this.getPopulation());
+                composer.syncJournal();
+                composer.publishGeneration(this.getPopulation());
+                composer.genCountIncrement();
+            }
+        }
+    }
+
+    /**
+     * Select a composition matching the criteria by rank, uniformly among the
+     * best ones down to the threshold index, as Composer::select does over a
+     * sorted list. The ordered population is walked in place instead of being
+     * copied and sorted for every birth.
+     *
+     * @param criteria
+     * @param threshold share of matching compositions ranked below the
+     * threshold index.
+     * @return the selected composition, or null if none matches.
+     */
+    Composition select(Predicate<Composition> criteria, double threshold) {
+
+        if (threshold > 1.0 || threshold < 0.0) {
+            return null;
+        }
+        int n = 0;
+        for (var r : population.descendingSet()) {
+            if (criteria.test(r.composition)) {
+                n++;
+            }
+        }
+        if (n == 0) {
+            return null;
+        }
+        int rank = getRandom().nextInt((int) ((n - 1) * threshold) + 1);
+        Composition last = null;
+        for (var r : population.descendingSet()) {
+            if (criteria.test(r.composition)) {
+                last = r.composition;
+                if (rank-- == 0) {
+                    break;
+                }
+            }
+        }
+        // other workers may have replaced matching compositions in between.
+        return last;
+    }
+
+    /**
+     * Current population, best first.
+     *
+     * @return list of compositions.
+     */
+    public List<Composition> getPopulation() {
+
+        var list = population.descendingSet().stream()
+                .map(r -> r.composition)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return list;
+    }
+
+    public Composition getBest() {
+
+        return population.last().composition;
+    }
+
+    public Composition getWorst() {
+
+        return population.first().composition;
+    }
+
+    public long getBirths() {
+
+        return births.get();
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.operations;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+
+/**
+ * Adapt operator chances and selection threshold of a Composer from the
+ * improvements its children made over their parents.
+ * <p>
+ * Each binary decision (crossover, reseeding, elongation) keeps a recency
+ * weighted quality for taking and for declining it, and its chance follows
+ * probability matching between the two. Selection threshold is chosen per
+ * generation among a few levels by UCB1 on the mean improvement of the
+ * generation.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class AdaptiveController implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static void main(String[] args) {
+
+        var controller = new AdaptiveController(SELECTION_THRESHOLD.getDouble());
+        for (int gen = 0; gen < 50; gen++) {
+            IntStream.range(0, 100).forEach(i -> {
+                boolean crossover = i % 2 == 0;
+                controller.recordChild(true, crossover, i % 3 == 0, crossover ? 0.02 : 0.01);
+            });
+            controller.update();
+        }
+        System.out.println(controller);
+    }
+
+    public static final double[] THRESHOLD_LEVELS = {0.5, 0.6, 0.7, 0.8, 0.9, 0.95};
+    /**
+     * Lower bound of any adapted chance, which keeps every option explored.
+     */
+    public static final double MIN_CHANCE = 0.05;
+    /**
+     * Upper bound of elongation chance. Elongation beyond the aim size
+     * decays with its power, and a bound keeps lengths close to the aim.
+     */
+    public static final double MAX_ELONGATION_CHANCE = 0.5;
+    /**
+     * Step size of the recency weighted qualities.
+     */
+    public static final double LEARNING_RATE = 0.1;
+    /**
+     * Scale of quality the initial chances are encoded with. Small enough to
+     * be overridden by a few rewards.
+     */
+    public static final double INITIAL_QUALITY = 0.01;
+    /**
+     * Exploration factor of UCB1, in the scale of score improvements.
+     */
+    public static final double EXPLORATION = 0.01;
+
+    /**
+     * Running statistic of rewards of an option.
+     */
+    public static class Arm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long count;
+        private double quality;
+
+        Arm(double quality) {
+
+            this.quality = quality;
+        }
+
+        public void reward(double reward) {
+
+            this.count++;
+            this.quality += LEARNING_RATE * (reward - this.quality);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getQuality() {
+            return quality;
+        }
+    }
+
+    /**
+     * A binary decision with adaptive chance of being taken.
+     */
+    public static class Decision implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Arm taken, declined;
+        private final double min, max;
+        private double chance;
+        private transient AliasSampler<Boolean> sampler;
+        private transient Map<Integer, AliasSampler<Boolean>> powered;
+
+        Decision(double chance, double min, double max) {
+
+            this.chance = chance;
+            this.min = min;
+            this.max = max;
+            this.taken = new Arm(chance * INITIAL_QUALITY);
+            this.declined = new Arm((1.0 - chance) * INITIAL_QUALITY);
+        }
+
+        public boolean sample() {
+
+            if (sampler == null) {
+                sampler = AliasSampler.ofChance(chance);
+            }
+            return sampler.sample();
+        }
+
+        /**
+         * Sample with the chance raised to the specified power, as elongation
+         * of compositions beyond their aim size does.
+         *
+         * @param exponent
+         * @return true if taken.
+         */
+        public boolean sample(int exponent) {
+
+            if (powered == null) {
+                powered = new HashMap<>();
+            }
+            return powered.computeIfAbsent(exponent,
+                    e -> AliasSampler.ofChance(Math.pow(chance, e)))
+                    .sample();
+        }
+
+        public void record(boolean isTaken, double reward) {
+
+            (isTaken ? taken : declined).reward(reward);
+        }
+
+        void update() {
+
+            double sum = taken.quality + declined.quality;
+            if (sum > 0.0) {
+                this.chance = min + (max - min) * taken.quality / sum;
+                this.sampler = null;
+                this.powered = null;
+            }
+        }
+
+        public double getChance() {
+            return chance;
+        }
+
+        public Arm getTaken() {
+            return taken;
+        }
+
+        public Arm getDeclined() {
+            return declined;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f (%.4f/%.4f)",
+                    chance, taken.quality, declined.quality);
+        }
+    }
+
+    private final Decision crossover;
+    private final Decision reseeding;
+    private final Decision elongation;
+    private final double[] thresholds;
+    private final Arm[] thresholdArms;
+    private int thresholdIndex;
+    private long generations;
+    private double generationReward;
+    private int generationSize;
+
+    public AdaptiveController(double threshold) {
+
+        this.crossover = new Decision(CHANCE_CROSSOVER_IF_COMPLETED.getDouble(),
+                MIN_CHANCE, 1.0 - MIN_CHANCE);
+        this.reseeding = new Decision(CHANCE_RESEEDING.getDouble(),
+                MIN_CHANCE, 1.0 - MIN_CHANCE);
+        this.elongation = new Decision(CHANCE_ELONGATION_IF_COMPLETED.getDouble(),
+                MIN_CHANCE, MAX_ELONGATION_CHANCE);
+        this.thresholds = DoubleStream.concat(
+                DoubleStream.of(THRESHOLD_LEVELS), DoubleStream.of(threshold))
+                .distinct()
+                .sorted()
+                .toArray();
+        this.thresholdArms = DoubleStream.of(thresholds)
+                .mapToObj(t -> new Arm(0.0))
+                .toArray(Arm[]::new);
+        this.thresholdIndex = IntStream.range(0, thresholds.length)
+                .filter(i -> thresholds[i] == threshold)
+                .findFirst().getAsInt();
+    }
+
+    /**
+     * Record the improvement of a child over its parent. Crossover is credited
+     * only for children of which it was offered, as reseeding is decided for
+     * every child.
+     *
+     * @param offered whether crossover was offered for the child.
+     * @param crossover whether the child was produced by crossover.
+     * @param reseeded whether the child was reseeded.
+     * @param improvement score improvement, non-positive ones count as 0.
+     */
+    public void recordChild(boolean offered, boolean crossover, boolean reseeded,
+            double improvement) {
+
+        double reward = Math.max(0.0, improvement);
+        if (offered) {
+            this.crossover.record(crossover, reward);
+        }
+        this.reseeding.record(reseeded, reward);
+        this.generationReward += reward;
+        this.generationSize++;
+    }
+
+    /**
+     * Record the score change of a completed composition after being
+     * elongated. A gain rewards elongating and a loss rewards declining it.
+     * Compositions not elongated keep their scores and tell nothing.
+     *
+     * @param improvement
+     */
+    public void recordElongation(double improvement) {
+
+        this.elongation.record(true, Math.max(0.0, improvement));
+        this.elongation.record(false, Math.max(0.0, -improvement));
+    }
+
+    /**
+     * Reallocate chances and choose threshold for the next generation.
+     */
+    public void update() {
+
+        if (generationSize > 0) {
+            thresholdArms[thresholdIndex].reward(generationReward / generationSize);
+        }
+        this.generations++;
+        this.generationReward = 0.0;
+        this.generationSize = 0;
+        this.crossover.update();
+        this.reseeding.update();
+        this.elongation.update();
+        this.thresholdIndex = IntStream.range(0, thresholds.length)
+                .boxed()
+                .max((i, j) -> Double.compare(ucb(i), ucb(j)))
+                .get();
+    }
+
+    private double ucb(int i) {
+
+        var arm = thresholdArms[i];
+        return (arm.count == 0) ? Double.POSITIVE_INFINITY
+                : arm.quality + EXPLORATION
+                * Math.sqrt(2 * Math.log(generations) / arm.count);
+    }
+
+    public double getThreshold() {
+
+        return thresholds[thresholdIndex];
+    }
+
+    /*
+     * Default getters.
+     */
+    public Decision getCrossover() {
+        return crossover;
+    }
+
+    public Decision getReseeding() {
+        return reseeding;
+    }
+
+    public Decision getElongation() {
+        return elongation;
+    }
+
+    public long getGenerations() {
+        return generations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveController{crossover = %s, reseeding = %s, "
+                + "elongation = %s, threshold = %.2f}",
+                crossover, reseeding, elongation, getThreshold());
+    }
+}
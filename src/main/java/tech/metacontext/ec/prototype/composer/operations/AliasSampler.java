@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.operations;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
+
+/**
+ * Weighted sampler over a fixed set of outcomes, built with Vose's alias
+ * method. Each draw costs one random double regardless of the number of
+ * outcomes.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ * @param <E> type of outcomes.
+ */
+public class AliasSampler<E> {
+
+    public static void main(String[] args) {
+
+        var sampler = of(new String[]{"A", "B", "C"}, s -> s.charAt(0) - 'A' + 1.0);
+        var counts = Stream.generate(sampler::sample)
+                .limit(60000)
+                .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
+        System.out.println(counts);
+    }
+
+    private final List<E> outcomes;
+    private final double[] probabilities;
+    private final double[] thresholds;
+    private final int[] aliases;
+
+    public static <E> AliasSampler<E> of(E[] outcomes, ToDoubleFunction<E> weighting) {
+
+        return new AliasSampler<>(Arrays.asList(outcomes),
+                Stream.of(outcomes).mapToDouble(weighting).toArray());
+    }
+
+    /**
+     * Sampler of a single event with specified chance, true stands for the
+     * event happening.
+     *
+     * @param chance chance of the event, clamped into [0.0, 1.0].
+     * @return sampler of the event.
+     */
+    public static AliasSampler<Boolean> ofChance(double chance) {
+
+        double p = Math.max(0.0, Math.min(1.0, chance));
+        return new AliasSampler<>(List.of(true, false), new double[]{p, 1.0 - p});
+    }
+
+    public AliasSampler(List<E> outcomes, double[] weights) {
+
+        if (outcomes.isEmpty() || outcomes.size() != weights.length) {
+            throw new IllegalArgumentException(
+                    "Outcomes and weights must be non-empty and of the same size.");
+        }
+        double sum = Arrays.stream(weights).sum();
+        if (!(sum > 0.0) || Arrays.stream(weights).anyMatch(w -> w < 0.0)) {
+            throw new IllegalArgumentException(
+                    "Weights must be non-negative with a positive sum.");
+        }
+        int n = weights.length;
+        this.outcomes = List.copyOf(outcomes);
+        this.probabilities = Arrays.stream(weights).map(w -> w / sum).toArray();
+        this.thresholds = new double[n];
+        this.aliases = new int[n];
+        var scaled = Arrays.stream(this.probabilities).map(p -> p * n).toArray();
+        var small = new ArrayDeque<Integer>();
+        var large = new ArrayDeque<Integer>();
+        for (int i = 0; i < n; i++) {
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int s = small.pop(), l = large.pop();
+            this.thresholds[s] = scaled[s];
+            this.aliases[s] = l;
+            scaled[l] = scaled[l] + scaled[s] - 1.0;
+            (scaled[l] < 1.0 ? small : large).push(l);
+        }
+        // leftovers are 1.0 up to rounding errors.
+        while (!large.isEmpty()) {
+            int l = large.pop();
+            this.thresholds[l] = 1.0;
+            this.aliases[l] = l;
+        }
+        while (!small.isEmpty()) {
+            int s = small.pop();
+            this.thresholds[s] = 1.0;
+            this.aliases[s] = s;
+        }
+    }
+
+    public E sample() {
+
+        return sample(getRandom());
+    }
+
+    public E sample(Random random) {
+
+        return this.outcomes.get(sampleIndex(random));
+    }
+
+    /**
+     * Draw an index of outcome. The integral part of the scaled random double
+     * picks the column and the fractional part decides between the column and
+     * its alias.
+     *
+     * @param random source of randomness.
+     * @return index of the outcome drawn.
+     */
+    public int sampleIndex(Random random) {
+
+        double u = random.nextDouble() * this.thresholds.length;
+        int column = Math.min((int) u, this.thresholds.length - 1);
+        return (u - column < this.thresholds[column])
+                ? column : this.aliases[column];
+    }
+
+    public double getProbability(E outcome) {
+
+        int index = this.outcomes.indexOf(outcome);
+        return (index < 0) ? 0.0 : this.probabilities[index];
+    }
+
+    public List<E> getOutcomes() {
+
+        return outcomes;
+    }
+}
@@ -15,8 +15,6 @@
  */
 package tech.metacontext.ec.prototype.composer.operations;
 
-import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
-
 /**
  *
  * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
@@ -27,8 +25,16 @@ public enum MutationType {
     Deletion(),
     Alteration();
 
+    private static final AliasSampler<MutationType> SAMPLER
+            = AliasSampler.of(values(), mt -> 1.0);
+
     public static MutationType getRandomType() {
 
-        return MutationType.values()[getRandom().nextInt(MutationType.values().length)];
+        return SAMPLER.sample();
+    }
+
+    public static AliasSampler<MutationType> getSampler() {
+
+        return SAMPLER;
     }
 }
@@ -59,6 +59,12 @@ public class FixedDivision extends Style {
         return 1.0;
     }
 
+    @Override
+    public double getEstimatedCost() {
+
+        return 0.0;
+    }
+
     @Override
     public <M extends MusicMaterial> void matInitializer(M m) {
 
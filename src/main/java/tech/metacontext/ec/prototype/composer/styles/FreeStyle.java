@@ -37,6 +37,12 @@ public class FreeStyle extends Style {
         return 1.0;
     }
 
+    @Override
+    public double getEstimatedCost() {
+
+        return 0.0;
+    }
+
     public static boolean checker(SketchNode whatever) {
 
         return true;
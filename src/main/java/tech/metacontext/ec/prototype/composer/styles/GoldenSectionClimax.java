@@ -48,6 +48,7 @@ public class GoldenSectionClimax extends Style {
             composer.sketch().evolve();
             summary = composer.getPopulation().stream()
                     .peek(c -> c.getRenderedChecked(null))
+                    .filter(c -> !c.getEval().isLazy(gsc))
                     .mapToDouble(c -> c.getScore(gsc))
                     .summaryStatistics();
             System.out.printf("%.5f ~ %.5f\n", summary.getMin(), summary.getMax());
@@ -103,46 +104,86 @@ public class GoldenSectionClimax extends Style {
         return true;
     }
 
+    /**
+     * Climax indexes and golden section standards of a composition. Computed
+     * per call so that compositions can be rated concurrently.
+     */
+    private static class Profile {
+
+        List<Double> climaxIndexes;
+        List<Double> standards;
+        double peak;
+        double base;
+    }
+
     @Override
     public double rateComposition(Composition composition) {
 
-        this.updateClimaxIndexes(composition);
+        var profile = this.profile(composition);
         double sum = IntStream.range(0, composition.getSize())
                 .mapToDouble(i
-                        -> Math.abs(climaxIndexes.get(i) - this.standards.get(i)))
+                        -> Math.abs(profile.climaxIndexes.get(i) - profile.standards.get(i)))
                 //                -> Math.abs(climaxIndexes.get(i) - this.standards.get(i)) * this.standards.get(i))
                 .sum();
-        return (base - sum) / base;
+        return (profile.base - sum) / profile.base;
     }
 
-    public List<Double> updateClimaxIndexes(Composition composition) {
+    /**
+     * A climax index over all materials of every node, rated after the range
+     * check of UnaccompaniedCello.
+     *
+     * @return estimated cost.
+     */
+    @Override
+    public double getEstimatedCost() {
 
-        this.climaxIndexes = composition
+        return 4.0;
+    }
+
+    private Profile profile(Composition composition) {
+
+        var profile = new Profile();
+        profile.climaxIndexes = composition
                 .getRenderedChecked("GoldenSectionClimax::rateComposition")
                 .stream()
-                .map(this::climaxIndex)
+                .map(node -> node.memoize(this, this::climaxIndex))
                 .collect(Collectors.toList());
-        this.peak = climaxIndexes.stream()
+        profile.peak = profile.climaxIndexes.stream()
                 .max(Comparator.naturalOrder())
                 .orElse(0.0);
-        this.standards = IntStream.range(0, composition.getSize())
-                .mapToDouble(i -> this.getStandard(composition, i))
+        profile.standards = IntStream.range(0, composition.getSize())
+                .mapToDouble(i -> getStandard(composition.getSize(), i, profile.peak))
                 //                .peek(s -> this.base += s) //.peek(s -> this.base += s * peak)
                 .boxed()
                 .collect(Collectors.toList());
 //        this.base = this.standards.stream().collect(Collectors.summingDouble(d -> d * d));
-        this.base = this.standards.stream().collect(Collectors.summingDouble(d -> d));
+        profile.base = profile.standards.stream().collect(Collectors.summingDouble(d -> d));
+        return profile;
+    }
+
+    public List<Double> updateClimaxIndexes(Composition composition) {
+
+        var profile = this.profile(composition);
+        this.climaxIndexes = profile.climaxIndexes;
+        this.peak = profile.peak;
+        this.standards = profile.standards;
+        this.base = profile.base;
         return this.climaxIndexes;
     }
 
     public double getStandard(Composition composition, int i) {
 
-        if (i < 0 || i > composition.getSize() - 1) {
+        return getStandard(composition.getSize(), i, this.peak);
+    }
+
+    static double getStandard(int size, int i, double peak) {
+
+        if (i < 0 || i > size - 1) {
             return 0.0;
         }
-        long peakNodeIndex = Math.round((composition.getSize() - 1) / RATIO);
+        long peakNodeIndex = Math.round((size - 1) / RATIO);
         return (i < peakNodeIndex) ? (i + 1) * peak / (peakNodeIndex + 1)
-                : (composition.getSize() - i) * peak / (composition.getSize() - peakNodeIndex);
+                : (size - i) * peak / (size - peakNodeIndex);
     }
 
     public double climaxIndex(SketchNode node) {
@@ -152,7 +193,7 @@ public class GoldenSectionClimax extends Style {
             double mti = switch (mt) {
                 case DYNAMICS-> {
                     var dy = (Dynamics) mm;
-                    yield dy.getAvgIntensityIndex(mat -> Intensity.getIntensityIndex(mat, dy.getLowestIntensity(), dy.getHighestIntensity()));
+                    yield dy.getAvgIntensityIndex(dy::getIntensityIndex);
                 }
                 case NOTE_RANGES->
                     ((NoteRanges) mm).getAvgIntensityIndex(mat -> NoteRanges.getIntensityIndex(mat, lowest, highest));
@@ -160,7 +201,7 @@ public class GoldenSectionClimax extends Style {
                     ((PitchSets) mm).getIntensityIndex();
                 case RHYTHMIC_POINTS-> {
                     var rp = (RhythmicPoints) mm;
-                    yield rp.getAvgIntensityIndex(mat -> 1.0 * (mat - rp.getMin()) / (rp.getMax() - rp.getMin()));
+                    yield rp.getAvgIntensityIndex(rp::getIntensityIndex);
                 }
             };
             assert (mti >= 0.0 && mti <= 1.0) :
@@ -175,11 +216,7 @@ public class GoldenSectionClimax extends Style {
 
     public int compareToPeak(Composition o1, Composition o2) {
 
-        this.updateClimaxIndexes(o1);
-        double o1Peak = this.getPeak();
-        this.updateClimaxIndexes(o2);
-        double o2Peak = this.getPeak();
-        return Double.compare(o1Peak, o2Peak);
+        return Double.compare(this.profile(o1).peak, this.profile(o2).peak);
     }
 
     @Override
@@ -49,6 +49,32 @@ public abstract class Style implements Serializable {
      */
     public abstract double rateComposition(Composition composition);
 
+    /**
+     * Estimated cost of {@link #rateComposition}, relative to a pass over the
+     * materials of rendered nodes. Styles of a composition are rated cheapest
+     * first, so that the costly ones can be left lazy once the minimum score
+     * is settled.
+     *
+     * @return estimated cost, 1.0 by default.
+     */
+    public double getEstimatedCost() {
+
+        return 1.0;
+    }
+
+    /**
+     * Upper bound of the score of any elongation of a composition, from its
+     * rendered nodes. Called by Composition::updateEval after the scores are
+     * updated, so that a style may bound by its own score.
+     *
+     * @param composition
+     * @return upper bound of score, 1.0 if nothing can be told.
+     */
+    public double getUpperBound(Composition composition) {
+
+        return 1.0;
+    }
+
     public int comparator(Composition c1, Composition c2) {
         
         return Double.compare(this.rateComposition(c1), this.rateComposition(c2));
@@ -18,6 +18,7 @@ package tech.metacontext.ec.prototype.composer.styles;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Stream;
 import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
 import tech.metacontext.ec.prototype.composer.materials.*;
@@ -80,7 +81,6 @@ public class UnaccompaniedCello extends Style {
                 if (ps.getMaterials().get(i).size() > rp.getMaterials().get(i) * 2) {
                     return false;
                 }
-                System.out.println("ps.getMaterials().get(i).size() > rp.getMaterials().get(i) * 2 == false");
             }
         }
         return inrange && chance;
@@ -101,6 +101,21 @@ public class UnaccompaniedCello extends Style {
         return 0.0;
     }
 
+    /**
+     * A note range out of RANGE remains in every elongation, as rendering
+     * keeps the nodes rendered before, so the score of a composition bounds
+     * those of its elongations.
+     *
+     * @param composition
+     * @return the score, rated if not yet.
+     */
+    @Override
+    public double getUpperBound(Composition composition) {
+
+        var score = composition.getScore(this);
+        return Objects.nonNull(score) ? score : rateComposition(composition);
+    }
+
     public static Collection<NoteRange> getRange() {
 
         return RANGE.keySet();
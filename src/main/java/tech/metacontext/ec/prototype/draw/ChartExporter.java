@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.draw;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.geom.Ellipse2D;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.DatasetRenderingOrder;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
+
+/**
+ * Headless export of score charts from generation statistics to PNG and SVG.
+ * Statistics longer than the number of bins are aggregated first, so the
+ * cost of a chart depends on the bins rather than on the generations.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ChartExporter {
+
+    public static void main(String[] args) throws IOException {
+
+        var stats = new GenerationStats();
+        IntStream.range(0, 100_000).forEach(g -> stats.record(g,
+                getRandom().doubles(100, 0.0, Math.min(1.0, 0.3 + g / 100_000.0)).toArray()));
+        long start = System.currentTimeMillis();
+        var exporter = new ChartExporter(stats, "Demo", 0.9);
+        exporter.writePng(Path.of("demo.png"));
+        exporter.writeSvg(Path.of("demo.svg"));
+        System.out.printf("Exported in %d ms.\n", System.currentTimeMillis() - start);
+    }
+
+    public static int DEFAULT_BINS = 1000;
+    public static int DEFAULT_WIDTH = 1600, DEFAULT_HEIGHT = 630;
+
+    private final GenerationStats stats;
+    private final String title;
+    private final double marker;
+    private int width = DEFAULT_WIDTH, height = DEFAULT_HEIGHT;
+
+    /**
+     *
+     * @param stats statistics to chart, binned into DEFAULT_BINS rows.
+     * @param title
+     * @param marker score of the horizontal marker line, NaN for none.
+     */
+    public ChartExporter(GenerationStats stats, String title, double marker) {
+
+        this(stats, title, marker, DEFAULT_BINS);
+    }
+
+    public ChartExporter(GenerationStats stats, String title, double marker, int bins) {
+
+        this.stats = stats.bin(bins);
+        this.title = title;
+        this.marker = marker;
+    }
+
+    public ChartExporter setSize(int width, int height) {
+
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * Chart of the score distribution: min-max and quartile bands around the
+     * median, the mean line and the best conserved score of each row.
+     *
+     * @return the chart.
+     */
+    public JFreeChart createChart() {
+
+        var range = new YIntervalSeries("min - max");
+        var quartiles = new YIntervalSeries("q1 - q3");
+        var mean = new XYSeries("average");
+        var conserved = new XYSeries("conservatory");
+        IntStream.range(0, stats.size()).forEach(row -> {
+            int x = stats.getGeneration(row);
+            if (stats.getCount(row) > 0) {
+                range.add(x, stats.getMedian(row), stats.getMin(row), stats.getMax(row));
+                quartiles.add(x, stats.getMedian(row), stats.getQ1(row), stats.getQ3(row));
+                mean.add(x, stats.getMean(row));
+            }
+            if (stats.getConserved(row) > 0) {
+                conserved.add(x, stats.getConservedMax(row));
+            }
+        });
+        var bands = new YIntervalSeriesCollection();
+        bands.addSeries(range);
+        bands.addSeries(quartiles);
+        var bandRenderer = new DeviationRenderer(true, false);
+        bandRenderer.setSeriesPaint(0, new Color(0, 0, 0, 0));
+        bandRenderer.setSeriesFillPaint(0, Color.LIGHT_GRAY);
+        bandRenderer.setSeriesPaint(1, Color.DARK_GRAY);
+        bandRenderer.setSeriesFillPaint(1, Color.GRAY);
+        bandRenderer.setAlpha(0.5f);
+
+        var meanRenderer = new XYLineAndShapeRenderer(true, false);
+        meanRenderer.setSeriesPaint(0, Color.BLUE);
+        meanRenderer.setSeriesStroke(0, new BasicStroke(2.0f));
+
+        var conservedRenderer = new XYLineAndShapeRenderer(false, true);
+        conservedRenderer.setSeriesPaint(0, Color.RED);
+        conservedRenderer.setSeriesShape(0, new Ellipse2D.Double(-2.0, -2.0, 4.0, 4.0));
+
+        var xAxis = new NumberAxis("Generation");
+        xAxis.setAutoRangeIncludesZero(false);
+        var yAxis = new NumberAxis("Score");
+        yAxis.setAutoRangeIncludesZero(false);
+        var plot = new XYPlot(bands, xAxis, yAxis, bandRenderer);
+        plot.setDataset(1, new XYSeriesCollection(mean));
+        plot.setRenderer(1, meanRenderer);
+        plot.setDataset(2, new XYSeriesCollection(conserved));
+        plot.setRenderer(2, conservedRenderer);
+        plot.setDatasetRenderingOrder(DatasetRenderingOrder.FORWARD);
+        if (!Double.isNaN(marker)) {
+            var valueMarker = new ValueMarker(marker);
+            valueMarker.setPaint(Color.BLACK);
+            plot.addRangeMarker(valueMarker);
+        }
+        var chart = new JFreeChart(plot);
+        chart.setTitle(title);
+        return chart;
+    }
+
+    public Path writePng(Path path) throws IOException {
+
+        createParent(path);
+        ChartUtils.saveChartAsPNG(path.toFile(), createChart(), width, height);
+        return path;
+    }
+
+    /**
+     * Write the chart as SVG, drawn directly from the statistics.
+     *
+     * @param path
+     * @return the path written.
+     * @throws IOException
+     */
+    public Path writeSvg(Path path) throws IOException {
+
+        createParent(path);
+        Files.writeString(path, toSvg(), StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private static void createParent(Path path) throws IOException {
+
+        if (Objects.nonNull(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+    }
+
+    public String toSvg() {
+
+        int left = 70, right = 20, top = 40, bottom = 50;
+        double plotWidth = width - left - right, plotHeight = height - top - bottom;
+        var rows = IntStream.range(0, stats.size())
+                .filter(row -> stats.getCount(row) > 0)
+                .toArray();
+        double x0 = 0, x1 = Math.max(1, stats.getGeneration(Math.max(0, stats.size() - 1)));
+        double y0 = IntStream.of(rows).mapToDouble(stats::getMin).min().orElse(0.0);
+        double y1 = IntStream.range(0, stats.size())
+                .mapToDouble(row -> Math.max(stats.getConservedMax(row),
+                stats.getCount(row) > 0 ? stats.getMax(row) : 0.0))
+                .max().orElse(1.0);
+        if (!Double.isNaN(marker)) {
+            y0 = Math.min(y0, marker);
+            y1 = Math.max(y1, marker);
+        }
+        if (y1 - y0 < 1e-9) {
+            y1 = y0 + 1.0;
+        }
+        double ys0 = y0, ys1 = y1;
+        IntToDoubleFunction px = g -> left + (g - x0) / (x1 - x0) * plotWidth;
+        DoubleUnaryOperator py
+                = v -> top + (1.0 - (v - ys0) / (ys1 - ys0)) * plotHeight;
+
+        var svg = new StringBuilder();
+        svg.append(String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" "
+                + "font-family=\"sans-serif\" font-size=\"12\">\n", width, height));
+        svg.append(String.format(Locale.ROOT,
+                "<rect width=\"%d\" height=\"%d\" fill=\"white\"/>\n", width, height));
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"%d\" y=\"24\" text-anchor=\"middle\" font-size=\"16\">%s</text>\n",
+                width / 2, escape(title)));
+        // bands, median and mean.
+        svg.append(band(rows, stats::getMin, stats::getMax, px, py, "#c0c0c0"));
+        svg.append(band(rows, stats::getQ1, stats::getQ3, px, py, "#808080"));
+        svg.append(line(rows, stats::getMedian, px, py, "#404040", 1.0));
+        svg.append(line(rows, stats::getMean, px, py, "#0000ff", 2.0));
+        // conserved.
+        IntStream.range(0, stats.size())
+                .filter(row -> stats.getConserved(row) > 0)
+                .forEach(row -> svg.append(String.format(Locale.ROOT,
+                "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"2\" fill=\"#ff0000\"/>\n",
+                px.applyAsDouble(stats.getGeneration(row)),
+                py.applyAsDouble(stats.getConservedMax(row)))));
+        if (!Double.isNaN(marker)) {
+            svg.append(String.format(Locale.ROOT,
+                    "<line x1=\"%d\" y1=\"%.1f\" x2=\"%.1f\" y2=\"%.1f\" stroke=\"black\"/>\n",
+                    left, py.applyAsDouble(marker), left + plotWidth, py.applyAsDouble(marker)));
+        }
+        // axes and ticks.
+        svg.append(String.format(Locale.ROOT,
+                "<polyline points=\"%d,%d %d,%.1f %.1f,%.1f\" fill=\"none\" stroke=\"black\"/>\n",
+                left, top, left, top + plotHeight, left + plotWidth, top + plotHeight));
+        for (int i = 0; i <= 5; i++) {
+            double v = y0 + (y1 - y0) * i / 5;
+            svg.append(String.format(Locale.ROOT,
+                    "<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%.2f</text>\n",
+                    left - 5, py.applyAsDouble(v) + 4, v));
+        }
+        for (int i = 0; i <= 10; i++) {
+            int g = (int) Math.round(x0 + (x1 - x0) * i / 10);
+            svg.append(String.format(Locale.ROOT,
+                    "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"middle\">%d</text>\n",
+                    px.applyAsDouble(g), top + plotHeight + 18, g));
+        }
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">Generation</text>\n",
+                left + plotWidth / 2, height - 8));
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"16\" y=\"%.1f\" text-anchor=\"middle\" "
+                + "transform=\"rotate(-90 16 %.1f)\">Score</text>\n",
+                top + plotHeight / 2, top + plotHeight / 2));
+        svg.append("</svg>\n");
+        return svg.toString();
+    }
+
+    private String band(int[] rows, IntToDoubleFunction low, IntToDoubleFunction high,
+            IntToDoubleFunction px, DoubleUnaryOperator py, String fill) {
+
+        if (rows.length == 0) {
+            return "";
+        }
+        var upper = IntStream.of(rows)
+                .mapToObj(row -> point(px.applyAsDouble(stats.getGeneration(row)),
+                py.applyAsDouble(high.applyAsDouble(row))));
+        var lower = IntStream.range(0, rows.length)
+                .map(i -> rows[rows.length - 1 - i])
+                .mapToObj(row -> point(px.applyAsDouble(stats.getGeneration(row)),
+                py.applyAsDouble(low.applyAsDouble(row))));
+        return String.format("<polygon points=\"%s %s\" fill=\"%s\" fill-opacity=\"0.5\"/>\n",
+                upper.collect(Collectors.joining(" ")),
+                lower.collect(Collectors.joining(" ")), fill);
+    }
+
+    private String line(int[] rows, IntToDoubleFunction value,
+            IntToDoubleFunction px, DoubleUnaryOperator py,
+            String stroke, double strokeWidth) {
+
+        if (rows.length == 0) {
+            return "";
+        }
+        return String.format(Locale.ROOT,
+                "<polyline points=\"%s\" fill=\"none\" stroke=\"%s\" stroke-width=\"%.1f\"/>\n",
+                IntStream.of(rows)
+                        .mapToObj(row -> point(px.applyAsDouble(stats.getGeneration(row)),
+                        py.applyAsDouble(value.applyAsDouble(row))))
+                        .collect(Collectors.joining(" ")),
+                stroke, strokeWidth);
+    }
+
+    private static String point(double x, double y) {
+
+        return String.format(Locale.ROOT, "%.1f,%.1f", x, y);
+    }
+
+    private static String escape(String text) {
+
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    public GenerationStats getStats() {
+        return stats;
+    }
+}
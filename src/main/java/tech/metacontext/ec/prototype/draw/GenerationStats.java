@@ -0,0 +1,293 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.draw;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static tech.metacontext.ec.prototype.composer.Settings.getRandom;
+
+/**
+ * Score statistics indexed by generation: count, minimum, quartiles, maximum
+ * and mean of the population, count of compositions scoring zero, and count
+ * and maximum of compositions conserved. Rows are aggregated when recorded,
+ * so charts of long runs never touch individual compositions.
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class GenerationStats {
+
+    public static void main(String[] args) {
+
+        var stats = new GenerationStats();
+        IntStream.range(0, 100_000).forEach(g -> stats.record(g,
+                getRandom().doubles(100, 0.0, Math.min(1.0, 0.3 + g / 100_000.0)).toArray()));
+        var binned = stats.bin(200);
+        System.out.println(binned.size() + " bins of " + binned.getWidth());
+        System.out.println(binned.row(binned.size() - 1));
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int size;
+    private int width = 1;
+    private int[] count = new int[INITIAL_CAPACITY];
+    private int[] population = new int[INITIAL_CAPACITY];
+    private int[] zero = new int[INITIAL_CAPACITY];
+    private int[] conserved = new int[INITIAL_CAPACITY];
+    private double[] min = new double[INITIAL_CAPACITY];
+    private double[] q1 = new double[INITIAL_CAPACITY];
+    private double[] median = new double[INITIAL_CAPACITY];
+    private double[] q3 = new double[INITIAL_CAPACITY];
+    private double[] max = new double[INITIAL_CAPACITY];
+    private double[] mean = new double[INITIAL_CAPACITY];
+    private double[] conservedMax = new double[INITIAL_CAPACITY];
+
+    /**
+     * Record the scores of the population of a generation, replacing the
+     * ones recorded before. Only positive scores, those of completed
+     * compositions, are counted.
+     *
+     * @param generation
+     * @param scores
+     */
+    public synchronized void record(int generation, double[] scores) {
+
+        ensure(generation);
+        var sorted = Arrays.stream(scores).filter(s -> s > 0.0).sorted().toArray();
+        int n = sorted.length;
+        population[generation] = scores.length;
+        count[generation] = n;
+        min[generation] = n > 0 ? sorted[0] : Double.NaN;
+        q1[generation] = quantile(sorted, 0.25);
+        median[generation] = quantile(sorted, 0.5);
+        q3[generation] = quantile(sorted, 0.75);
+        max[generation] = n > 0 ? sorted[n - 1] : Double.NaN;
+        mean[generation] = n > 0 ? Arrays.stream(sorted).sum() / n : Double.NaN;
+    }
+
+    /**
+     * Record the number of compositions of a generation scoring zero in any
+     * style, which are never going to be selected.
+     *
+     * @param generation
+     * @param zero
+     */
+    public synchronized void recordZero(int generation, int zero) {
+
+        ensure(generation);
+        this.zero[generation] = zero;
+    }
+
+    /**
+     * Record a composition conserved in a generation.
+     *
+     * @param generation
+     * @param score
+     */
+    public synchronized void recordConserved(int generation, double score) {
+
+        ensure(generation);
+        conserved[generation]++;
+        conservedMax[generation] = Math.max(conservedMax[generation], score);
+    }
+
+    private void ensure(int generation) {
+
+        if (width != 1) {
+            throw new IllegalStateException("Binned statistics are read-only.");
+        }
+        if (generation >= count.length) {
+            int capacity = Math.max(count.length * 2, generation + 1);
+            count = Arrays.copyOf(count, capacity);
+            population = Arrays.copyOf(population, capacity);
+            zero = Arrays.copyOf(zero, capacity);
+            conserved = Arrays.copyOf(conserved, capacity);
+            min = Arrays.copyOf(min, capacity);
+            q1 = Arrays.copyOf(q1, capacity);
+            median = Arrays.copyOf(median, capacity);
+            q3 = Arrays.copyOf(q3, capacity);
+            max = Arrays.copyOf(max, capacity);
+            mean = Arrays.copyOf(mean, capacity);
+            conservedMax = Arrays.copyOf(conservedMax, capacity);
+        }
+        for (int g = size; g <= generation; g++) {
+            min[g] = q1[g] = median[g] = q3[g] = max[g] = mean[g] = Double.NaN;
+        }
+        size = Math.max(size, generation + 1);
+    }
+
+    /**
+     * Quantile by linear interpolation between closest ranks.
+     *
+     * @param sorted values in ascending order.
+     * @param p
+     * @return quantile, NaN if no value.
+     */
+    static double quantile(double[] sorted, double p) {
+
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        double rank = p * (sorted.length - 1);
+        int lower = (int) rank;
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    /**
+     * Aggregate consecutive generations into at most the specified number of
+     * bins of equal width. Minimum, maximum, mean and conserved counts are
+     * exact; quartiles of a bin are the count weighted means of the quartiles
+     * of its generations.
+     *
+     * @param bins maximal number of rows.
+     * @return binned statistics, this if already small enough.
+     */
+    public synchronized GenerationStats bin(int bins) {
+
+        if (size <= bins) {
+            return this;
+        }
+        int w = (size + bins - 1) / bins;
+        var binned = new GenerationStats();
+        binned.ensure((size - 1) / w);
+        binned.width = w * this.width;
+        for (int b = 0; b < binned.size; b++) {
+            int from = b * w, to = Math.min(size, from + w);
+            int n = 0, c = 0, p = 0, z = 0;
+            double lo = Double.NaN, hi = Double.NaN, cmax = 0.0;
+            double sum = 0.0, sq1 = 0.0, smed = 0.0, sq3 = 0.0;
+            for (int g = from; g < to; g++) {
+                c += conserved[g];
+                p += population[g];
+                z += zero[g];
+                cmax = Math.max(cmax, conservedMax[g]);
+                if (count[g] == 0) {
+                    continue;
+                }
+                n += count[g];
+                lo = Double.isNaN(lo) ? min[g] : Math.min(lo, min[g]);
+                hi = Double.isNaN(hi) ? max[g] : Math.max(hi, max[g]);
+                sum += mean[g] * count[g];
+                sq1 += q1[g] * count[g];
+                smed += median[g] * count[g];
+                sq3 += q3[g] * count[g];
+            }
+            binned.count[b] = n;
+            binned.population[b] = p;
+            binned.zero[b] = z;
+            binned.conserved[b] = c;
+            binned.conservedMax[b] = cmax;
+            binned.min[b] = lo;
+            binned.max[b] = hi;
+            binned.mean[b] = n > 0 ? sum / n : Double.NaN;
+            binned.q1[b] = n > 0 ? sq1 / n : Double.NaN;
+            binned.median[b] = n > 0 ? smed / n : Double.NaN;
+            binned.q3[b] = n > 0 ? sq3 / n : Double.NaN;
+        }
+        return binned;
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return number of generations, or of bins if binned.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Generations per row.
+     *
+     * @return width of bins, 1 if not binned.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * First generation of a row.
+     *
+     * @param row
+     * @return the generation.
+     */
+    public int getGeneration(int row) {
+        return row * width;
+    }
+
+    public synchronized int getCount(int row) {
+        return count[row];
+    }
+
+    public synchronized int getPopulation(int row) {
+        return population[row];
+    }
+
+    public synchronized int getZero(int row) {
+        return zero[row];
+    }
+
+    /**
+     * Share of the population scoring zero in any style.
+     *
+     * @param row
+     * @return the rate, NaN if no population recorded.
+     */
+    public synchronized double getZeroRate(int row) {
+        return population[row] > 0 ? 1.0 * zero[row] / population[row] : Double.NaN;
+    }
+
+    public synchronized int getConserved(int row) {
+        return conserved[row];
+    }
+
+    public synchronized double getMin(int row) {
+        return min[row];
+    }
+
+    public synchronized double getQ1(int row) {
+        return q1[row];
+    }
+
+    public synchronized double getMedian(int row) {
+        return median[row];
+    }
+
+    public synchronized double getQ3(int row) {
+        return q3[row];
+    }
+
+    public synchronized double getMax(int row) {
+        return max[row];
+    }
+
+    public synchronized double getMean(int row) {
+        return mean[row];
+    }
+
+    public synchronized double getConservedMax(int row) {
+        return conservedMax[row];
+    }
+
+    public synchronized String row(int row) {
+        return String.format("gen %d: n = %d, min = %.3f, q1 = %.3f, median = %.3f, "
+                + "q3 = %.3f, max = %.3f, mean = %.3f, zero = %d/%d, conserved = %d (max %.3f)",
+                getGeneration(row), count[row], min[row], q1[row], median[row],
+                q3[row], max[row], mean[row], zero[row], population[row],
+                conserved[row], conservedMax[row]);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.abs;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.model.SketchNode;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class IdAllocatorTest {
+
+    public IdAllocatorTest() {
+    }
+
+    /**
+     * Test of next method, ids are unique across threads and carry the 32-bit
+     * run id.
+     */
+    @Test
+    public void testNext() {
+        System.out.println("next");
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel()
+                .forEach(i -> assertTrue(ids.add(IdAllocator.next())));
+        assertEquals(100_000, ids.size());
+        assertEquals(0L, IdAllocator.getRunId() >>> IdAllocator.RUN_BITS);
+        assertTrue(ids.stream().allMatch(id
+                -> id >>> IdAllocator.COUNTER_BITS == IdAllocator.getRunId()));
+    }
+
+    /**
+     * Test of toUUID, parse and prefix methods.
+     */
+    @Test
+    public void testUUID() {
+        System.out.println("UUID");
+        var node = new SketchNode();
+        var uuid = node.getId();
+        System.out.println(uuid + " " + node.getId_prefix());
+        assertSame(uuid, node.getId());
+        assertEquals(node.getNumericId(), IdAllocator.parse(uuid));
+        assertEquals("[" + uuid.substring(0, 13) + "]", node.getId_prefix());
+        assertThrows(IllegalArgumentException.class,
+                () -> IdAllocator.parse("123e4567-e89b-12d3-a456-426614174000"));
+        var prefixes = IntStream.range(0, 1000)
+                .mapToObj(i -> IdAllocator.prefix(IdAllocator.next()))
+                .collect(Collectors.toSet());
+        assertEquals(1000, prefixes.size());
+        var copy = new SketchNode(node.getNumericId());
+        assertEquals(node, copy);
+        assertEquals(node.hashCode(), copy.hashCode());
+        assertNotEquals(node, new SketchNode());
+    }
+
+    /**
+     * Creation cost against random UUID strings.
+     */
+    @Test
+    public void testCost() {
+        System.out.println("cost");
+        int n = 200_000;
+        var times = List.of(0, 1).stream()
+                .map(round -> {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < n; i++) {
+                        UUID.randomUUID().toString();
+                    }
+                    long uuid = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    for (int i = 0; i < n; i++) {
+                        IdAllocator.next();
+                    }
+                    return new long[]{uuid, System.nanoTime() - start};
+                })
+                .collect(Collectors.toList());
+        var last = times.get(times.size() - 1);
+        System.out.printf("%d ids: UUID %.1f ms, IdAllocator %.1f ms\n",
+                n, last[0] / 1e6, last[1] / 1e6);
+        assertTrue(last[1] < last[0]);
+    }
+}
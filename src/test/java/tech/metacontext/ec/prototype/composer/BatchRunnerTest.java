@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.metacontext.ec.prototype.composer.BatchRunner.*;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class BatchRunnerTest {
+
+    @TempDir
+    Path folder;
+
+    public BatchRunnerTest() {
+    }
+
+    /**
+     * Concurrent runs write their own reports, and the result of a seed does
+     * not depend on the other runs.
+     */
+    @Test
+    public void testRun() throws Exception {
+        System.out.println("run");
+        long[] seeds = {1L, 2L, 3L};
+        var instance = new BatchRunner(10, 1, 5, 0.5, 0.5, folder.resolve("batch"));
+        var results = instance.run(seeds, 2);
+        assertEquals(seeds.length, results.size());
+        var report = Files.readAllLines(folder.resolve("batch").resolve(REPORT_FILE));
+        assertEquals(seeds.length + 1, report.size());
+        assertTrue(Files.exists(folder.resolve("batch").resolve(SUMMARY_FILE)));
+        for (int i = 0; i < seeds.length; i++) {
+            var result = results.get(i);
+            assertEquals(seeds[i], result.getSeed());
+            assertTrue(result.isReached() || result.getGenerations() == 5);
+            var run = folder.resolve("batch").resolve(String.valueOf(seeds[i]));
+            assertEquals(result.getGenerations() + 1,
+                    Files.readAllLines(run.resolve(GENERATIONS_FILE)).size());
+            assertTrue(Files.exists(run.resolve(CONSERVATORY_FILE)));
+        }
+        var alone = new BatchRunner(10, 1, 5, 0.5, 0.5, folder.resolve("alone"))
+                .runSeed(seeds[1]);
+        assertEquals(results.get(1).getGenerations(), alone.getGenerations());
+        assertEquals(results.get(1).getConserved(), alone.getConserved());
+        assertEquals(results.get(1).getBest(), alone.getBest());
+    }
+}
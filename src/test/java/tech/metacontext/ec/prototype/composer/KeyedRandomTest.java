@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.metacontext.ec.prototype.composer.KeyedRandom.Purpose.*;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import tech.metacontext.ec.prototype.composer.enums.MaterialType;
+import tech.metacontext.ec.prototype.composer.model.Composer;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class KeyedRandomTest {
+
+    public KeyedRandomTest() {
+    }
+
+    static List<Long> draw(KeyedRandom random) {
+
+        return random.longs(16).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        var r = draw(KeyedRandom.of(RANDOM_SEED, 3, 7, CHILD));
+        assertEquals(r, draw(KeyedRandom.of(RANDOM_SEED, 3, 7, CHILD)));
+        assertNotEquals(r, draw(KeyedRandom.of(RANDOM_SEED + 1, 3, 7, CHILD)));
+        assertNotEquals(r, draw(KeyedRandom.of(RANDOM_SEED, 4, 7, CHILD)));
+        assertNotEquals(r, draw(KeyedRandom.of(RANDOM_SEED, 3, 8, CHILD)));
+        assertNotEquals(r, draw(KeyedRandom.of(RANDOM_SEED, 3, 7, CONSERVATION)));
+    }
+
+    @Test
+    public void testWithRandom() {
+        System.out.println("withRandom");
+        var shared = getRandom();
+        var expected = draw(KeyedRandom.of(RANDOM_SEED, 0, 0, CHILD));
+        var bound = KeyedRandom.of(RANDOM_SEED, 0, 0, CHILD);
+        var result = withRandom(bound, () -> {
+            assertSame(bound, getRandom());
+            return IntStream.range(0, 16)
+                    .mapToObj(i -> getRandom().nextLong())
+                    .collect(Collectors.toList());
+        });
+        assertEquals(expected, result);
+        assertSame(shared, getRandom());
+    }
+
+    static String signature(Composer composer) {
+
+        return composer.getPopulation().stream()
+                .map(c -> c.getRendered().stream()
+                .map(node -> Stream.of(MaterialType.values())
+                .map(mt -> node.getMat(mt).getMaterials().toString())
+                .collect(Collectors.joining("|")))
+                .collect(Collectors.joining("\n")))
+                .collect(Collectors.joining("\n--\n"))
+                + "\nconserved = " + composer.getConservatory().size();
+    }
+
+    static Composer run(boolean parallel) throws Exception {
+
+        var composer = TestCenter.newComposer(20);
+        composer.PARALLEL_EVOLUTION = parallel;
+        for (int i = 0; i < 10; i++) {
+            composer.sketch().evolve();
+        }
+        return composer;
+    }
+
+    /**
+     * Sequential and parallel evolution produce identical populations.
+     */
+    @Test
+    public void testEvolveDeterminism() throws Exception {
+        System.out.println("evolve determinism");
+        var sequential = signature(run(false));
+        var parallel = signature(run(true));
+        assertEquals(sequential, parallel);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import static tech.metacontext.ec.prototype.composer.Settings.*;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ParameterSetTest {
+
+    @TempDir
+    Path folder;
+
+    public ParameterSetTest() {
+    }
+
+    @Test
+    public void testWith() {
+        System.out.println("with");
+        var set = ParameterSet.DEFAULT.with(CHANCE_RESEEDING, 0.3);
+        assertEquals(0.3, set.getDouble(CHANCE_RESEEDING));
+        assertEquals(CHANCE_CROSSOVER_IF_COMPLETED.value.doubleValue(),
+                set.getDouble(CHANCE_CROSSOVER_IF_COMPLETED));
+        assertTrue(ParameterSet.DEFAULT.getValues().isEmpty());
+        assertEquals(set, ParameterSet.DEFAULT.with(CHANCE_RESEEDING, 0.3));
+        assertThrows(UnsupportedOperationException.class,
+                () -> set.getValues().put(CHANCE_RESEEDING, 0.5));
+    }
+
+    /**
+     * Parameters and samplers follow the bound set only within its scope.
+     */
+    @Test
+    public void testWithParameters() {
+        System.out.println("withParameters");
+        var set = ParameterSet.DEFAULT.with(CHANCE_DISCONNECTED, 0.0);
+        var probability = withParameters(set, () -> {
+            assertSame(set, getParameters());
+            assertEquals(0.0, CHANCE_DISCONNECTED.getDouble());
+            return TransformType.getSampler().getProbability(TransformType.Disconnected);
+        });
+        assertEquals(0.0, probability);
+        assertSame(ParameterSet.DEFAULT, getParameters());
+        assertEquals(CHANCE_DISCONNECTED.value.doubleValue(), CHANCE_DISCONNECTED.getDouble());
+        assertTrue(TransformType.getSampler().getProbability(TransformType.Disconnected) > 0.0);
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        System.out.println("sweep");
+        var axes = new LinkedHashMap<Parameters, double[]>();
+        axes.put(CHANCE_RESEEDING, new double[]{0.3, 0.7});
+        axes.put(CHANCE_CROSSOVER_IF_COMPLETED, new double[]{0.4, 0.8});
+        var sets = ParameterSweep.grid(ParameterSet.DEFAULT.with(SELECTION_THRESHOLD, 0.5)
+                .with(MIN_CONSERVE_SCORE, 0.5), axes);
+        assertEquals(4, sets.size());
+        assertEquals(4, sets.stream().distinct().count());
+        var random = ParameterSweep.random(ParameterSet.DEFAULT, axes, 5, 1L);
+        assertEquals(5, random.size());
+        random.forEach(set -> {
+            assertTrue(set.getDouble(CHANCE_RESEEDING) >= 0.3);
+            assertTrue(set.getDouble(CHANCE_RESEEDING) <= 0.7);
+        });
+        var rankings = new ParameterSweep(10, 1, 3, folder)
+                .run(sets, new long[]{1L, 2L}, 2);
+        assertEquals(4, rankings.size());
+        rankings.forEach(r -> assertEquals(2, r.getResults().size()));
+        for (int i = 1; i < rankings.size(); i++) {
+            assertTrue(ParameterSweep.RANKING.compare(rankings.get(i - 1), rankings.get(i)) <= 0);
+        }
+        assertEquals(5, Files.readAllLines(folder.resolve(ParameterSweep.SWEEP_FILE)).size());
+    }
+}
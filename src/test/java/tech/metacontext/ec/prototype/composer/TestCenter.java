@@ -17,7 +17,10 @@ package tech.metacontext.ec.prototype.composer;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import tech.metacontext.ec.prototype.composer.enums.ComposerAim;
 import tech.metacontext.ec.prototype.composer.model.Composer;
+import tech.metacontext.ec.prototype.composer.styles.GoldenSectionClimax;
+import tech.metacontext.ec.prototype.composer.styles.UnaccompaniedCello;
 import static tech.metacontext.ec.prototype.composer.Settings.*;
 
 /**
@@ -66,4 +69,23 @@ public class TestCenter {
 
         return this.m.getComposer();
     }
+
+    /**
+     * A fresh Composer with the styles of Studio and the preset threshold and
+     * conserve score, not archiving to disk, for tests which evolve or change
+     * a Composer of their own.
+     *
+     * @param size population size.
+     * @return the Composer.
+     * @throws Exception
+     */
+    public static Composer newComposer(int size) throws Exception {
+
+        var composer = new Composer(size, ComposerAim.Phrase, LogState.DISABLED,
+                THRESHOLD, CONSERVE_SCORE,
+                new UnaccompaniedCello(),
+                new GoldenSectionClimax(UnaccompaniedCello.getRange()));
+        composer.ARCHIVE_TO_DISK = false;
+        return composer;
+    }
 }
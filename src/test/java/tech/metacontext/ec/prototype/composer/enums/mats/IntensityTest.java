@@ -43,4 +43,24 @@ public class IntensityTest {
                 });
     }
 
+    /**
+     * Test of getIntensityIndex method with bounds, of class Intensity.
+     */
+    @Test
+    public void testGetIntensityIndexWithBounds() {
+        System.out.println("getIntensityIndex with bounds");
+        for (Intensity instance : Intensity.values()) {
+            for (Intensity lowest : Intensity.values()) {
+                for (Intensity highest : Intensity.values()) {
+                    double expResult = (instance.ordinal() > highest.ordinal()) ? 1.0
+                            : (instance.ordinal() < lowest.ordinal()) ? 0.0
+                                    : 1.0 * (instance.ordinal() - lowest.ordinal())
+                                    / (highest.ordinal() - lowest.ordinal());
+                    assertEquals(expResult,
+                            Intensity.getIntensityIndex(instance, lowest, highest));
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.factory;
+
+import java.util.AbstractMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.enums.mats.Pitch;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class PitchSetFactoryTest {
+
+    static final int N = 40_000;
+    static final double TOLERANCE = 0.015;
+
+    public PitchSetFactoryTest() {
+    }
+
+    /**
+     * The sampler replaced: random keys, sorted, mapped and made distinct.
+     */
+    static List<Pitch> legacy(PitchSetFactory f, Set<Pitch> preset, Random random) {
+
+        var presetPitches = f.isSharpAllowed() ? preset
+                : preset.stream()
+                        .map(pitch -> Pitch.values()[pitch.ordinalEnharmonic()])
+                        .collect(Collectors.toSet());
+        int size = random.nextInt(f.getMaxPitchNumber() - f.getMinPitchNumber() + 1)
+                + f.getMinPitchNumber();
+        return Stream.of(Pitch.values())
+                .limit(f.isSharpAllowed() ? 17 : 12)
+                .map(p -> new AbstractMap.SimpleEntry<>(presetPitches.contains(p) ? 0.0 : random.nextDouble(), p))
+                .sorted((o1, o2) -> o1.getKey().compareTo(o2.getKey()))
+                .map(e -> f.isEnharmonicAllowed() ? e.getValue().ordinal() : e.getValue().ordinalEnharmonic())
+                .distinct()
+                .map(i -> Pitch.values()[i])
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Frequencies of pitches included, of pitches first, and of sizes.
+     */
+    static double[][] frequencies(Supplier<List<Pitch>> sampler) {
+
+        var freq = new double[3][Pitch.values().length + 1];
+        for (int n = 0; n < N; n++) {
+            var ps = sampler.get();
+            assertEquals(ps.size(), ps.stream().distinct().count());
+            ps.forEach(p -> freq[0][p.ordinal()] += 1.0 / N);
+            freq[1][ps.get(0).ordinal()] += 1.0 / N;
+            freq[2][ps.size()] += 1.0 / N;
+        }
+        return freq;
+    }
+
+    @Test
+    public void testSameDistributions() {
+
+        var presets = List.of(EnumSet.noneOf(Pitch.class),
+                EnumSet.of(Pitch.C_sharp, Pitch.E),
+                EnumSet.of(Pitch.D_flat, Pitch.C_sharp, Pitch.A_sharp));
+        for (var sharp : List.of(true, false)) {
+            for (var enharmonic : List.of(true, false)) {
+                for (var preset : presets) {
+                    var f = new PitchSetFactory();
+                    f.setSharpAllowed(sharp);
+                    f.setEnharmonicAllowed(enharmonic);
+                    f.setPresetPitches(preset);
+                    var random = new Random(42);
+                    var expected = frequencies(() -> legacy(f, preset, random));
+                    var actual = frequencies(() -> f.generate(random));
+                    for (int i = 0; i < expected.length; i++) {
+                        for (int j = 0; j < expected[i].length; j++) {
+                            assertEquals(expected[i][j], actual[i][j], TOLERANCE,
+                                    String.format("sharp = %b, enharmonic = %b, preset = %s",
+                                            sharp, enharmonic, preset));
+                        }
+                    }
+                    System.out.printf("sharp = %-5b enharmonic = %-5b preset = %-24s %s\n",
+                            sharp, enharmonic, preset,
+                            IntStream.range(0, 12)
+                                    .mapToObj(i -> String.format("%.2f", actual[0][i]))
+                                    .collect(Collectors.joining(" ")));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSelect() {
+
+        var ps = List.of(Pitch.C, Pitch.E, Pitch.G, Pitch.B_flat, Pitch.D, Pitch.F_sharp, Pitch.A);
+        var random = new Random(7);
+        var freq = new double[Pitch.values().length];
+        for (int n = 0; n < N; n++) {
+            int mask = PitchSetFactory.select(ps, 3, random);
+            assertEquals(3, Integer.bitCount(mask));
+            ps.forEach(p -> freq[p.ordinal()] += (mask >>> p.ordinal() & 1) * 1.0 / N);
+        }
+        ps.forEach(p -> assertEquals(3.0 / 7, freq[p.ordinal()], TOLERANCE));
+        assertEquals(ps.stream().mapToInt(p -> 1 << p.ordinal()).sum(),
+                PitchSetFactory.select(ps, 10, random));
+        assertEquals(0, PitchSetFactory.select(ps, 0, random));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.factory;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.enums.MaterialType;
+import tech.metacontext.ec.prototype.composer.materials.*;
+import tech.metacontext.ec.prototype.composer.model.SketchNode;
+import tech.metacontext.ec.prototype.composer.styles.*;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class SketchNodeFactoryTest {
+
+    /**
+     * Throughput of node construction by prototypes against the reflective
+     * construction replaced, kept out of the suite.
+     */
+    public static void main(String[] args) throws Exception {
+
+        int n = 20_000;
+        long[] times = new long[2];
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                reflective(init);
+            }
+            times[0] = System.nanoTime() - start;
+            start = System.nanoTime();
+            IntStream.range(0, n).forEach(i -> instance.newInstance(init));
+            times[1] = System.nanoTime() - start;
+        }
+        System.out.printf("%d nodes: reflective %.0f nodes/s, prototype %.0f nodes/s\n",
+                n, n / (times[0] / 1e9), n / (times[1] / 1e9));
+    }
+
+    static SketchNodeFactory instance = SketchNodeFactory.getInstance();
+    static FixedDivision fixedDivision = new FixedDivision(3);
+    static UnaccompaniedCello cello = new UnaccompaniedCello();
+    static Consumer<MusicMaterial> init = mm -> {
+        fixedDivision.matInitializer(mm);
+        cello.matInitializer(mm);
+    };
+
+    public SketchNodeFactoryTest() {
+    }
+
+    @Test
+    public void testNewInstanceInit() {
+
+        var nodes = Stream.generate(() -> instance.newInstance(init))
+                .limit(100)
+                .peek(node -> assertTrue(fixedDivision.qualifySketchNode(node)))
+                .peek(node -> assertTrue(((NoteRanges) node.getMat(MaterialType.NOTE_RANGES))
+                .getMaterials().stream().flatMap(List::stream)
+                .allMatch(UnaccompaniedCello.RANGE::containsKey)))
+                .count();
+        assertEquals(100, nodes);
+        var ps1 = (PitchSets) MaterialType.PITCH_SETS.getInstance(init);
+        var ps2 = (PitchSets) MaterialType.PITCH_SETS.getInstance(init);
+        assertNotSame(ps1.factory, ps2.factory);
+        assertFalse(ps1.isFrozen());
+    }
+
+    /**
+     * The reflective construction replaced by prototypes: a new material by
+     * reflection, init applied and then generated.
+     */
+    static SketchNode reflective(Consumer<MusicMaterial> init) throws Exception {
+
+        var node = new SketchNode();
+        var mats = new EnumMap<MaterialType, MusicMaterial>(MaterialType.class);
+        for (var mt : MaterialType.values()) {
+            var mm = mt.getInstance().getClass().getDeclaredConstructor().newInstance();
+            init.accept(mm);
+            mats.put(mt, mm.generate());
+        }
+        node.setMats(mats);
+        return node.intern();
+    }
+}
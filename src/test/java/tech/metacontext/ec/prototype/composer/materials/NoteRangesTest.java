@@ -16,11 +16,15 @@
 package tech.metacontext.ec.prototype.composer.materials;
 
 import static java.util.function.Predicate.not;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Disabled;
 import tech.metacontext.ec.prototype.composer.enums.TransformType;
+import tech.metacontext.ec.prototype.composer.enums.mats.NoteRange;
 
 /**
  *
@@ -65,6 +69,54 @@ public class NoteRangesTest {
         System.out.printf("Disconnected: %s\n", nr1.transform(TransformType.Disconnected));
     }
 
+    @Test
+    public void testDisconnectedDomain() {
+
+        var nr = new NoteRanges();
+        nr.setLowest(NoteRange.C2);
+        nr.setHighest(NoteRange.C6);
+        nr.setDivision(3);
+        nr.generate();
+        IntStream.range(0, 100).forEach(i -> {
+            NoteRanges disconnected = nr.transform(TransformType.Disconnected);
+            assertEquals(3, disconnected.getDivision());
+            assertEquals(NoteRange.C2, disconnected.getLowest());
+            assertEquals(NoteRange.C6, disconnected.getHighest());
+            assertTrue(disconnected.getMaterials().stream()
+                    .flatMap(List::stream)
+                    .allMatch(r -> r.compareTo(NoteRange.C2) >= 0 && r.compareTo(NoteRange.C6) <= 0));
+        });
+    }
+
+    @Test
+    public void testGetIntensityIndex() {
+
+        System.out.println("getIntensityIndex");
+        NoteRange[] values = NoteRange.values();
+        for (int mask = 0; mask < 1 << values.length; mask++) {
+            final int m = mask;
+            List<NoteRange> rangeSet = Stream.of(values)
+                    .filter(r -> (m & 1 << r.ordinal()) != 0)
+                    .collect(Collectors.toList());
+            for (NoteRange lowest : values) {
+                for (NoteRange highest : values) {
+                    if (highest.compareTo(lowest) < 0) {
+                        continue;
+                    }
+                    int low = lowest.ordinal(), hi = highest.ordinal();
+                    double expResult = IntStream.rangeClosed(low, hi)
+                            .filter(i -> rangeSet.contains(NoteRange.valueOf(i)))
+                            .mapToDouble(i -> Math.pow(2, i - low))
+                            .sum() / IntStream.rangeClosed(0, hi - low)
+                                    .map(p -> (int) Math.pow(2, p))
+                                    .sum();
+                    assertEquals(expResult,
+                            NoteRanges.getIntensityIndex(rangeSet, lowest, highest));
+                }
+            }
+        }
+    }
+
     @Test
     @Disabled
     public void testReset() {
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.materials;
+
+import java.util.EnumSet;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
+import tech.metacontext.ec.prototype.composer.enums.mats.Pitch;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class PitchSetsTest {
+
+    public PitchSetsTest() {
+    }
+
+    /**
+     * Disconnected keeps division and common tone count, but no common tones
+     * preset by the last set of the material before.
+     */
+    @Test
+    public void testDisconnectedPreset() {
+
+        System.out.println("disconnectedPreset");
+        var preset = EnumSet.of(Pitch.C, Pitch.G);
+        var ps = new PitchSets();
+        ps.setCommonTone(2);
+        ps.generate();
+        ps.factory.setPresetPitches(preset);
+        long keeping = IntStream.range(0, 100)
+                .mapToObj(i -> ps.transform(TransformType.Disconnected))
+                .peek(d -> assertEquals(ps.getDivision(), d.getDivision()))
+                .peek(d -> assertEquals(2, d.getCommonTone()))
+                .filter(d -> d.getMaterials().get(0).containsAll(preset))
+                .count();
+        System.out.println(keeping + " of 100 starting with the preset");
+        assertTrue(keeping < 100);
+        assertEquals(preset, ps.factory.getPreset());
+    }
+}
@@ -59,6 +59,24 @@ public class RhythmicPointsTest {
         System.out.printf("Disconnected: %s\n", rp1.transform(TransformType.Disconnected));
     }
 
+    /**
+     * Intensity index normalizes points by the range of the material.
+     */
+    @Test
+    public void testGetIntensityIndex() {
+        System.out.println("getIntensityIndex");
+        var rp = new RhythmicPoints();
+        int min = rp.getMin(), max = rp.getMax();
+        assertEquals(0.0, rp.getIntensityIndex(min));
+        assertEquals(1.0, rp.getIntensityIndex(max));
+        for (int points = min; points <= max; points++) {
+            assertEquals(1.0 * (points - min) / (max - min), rp.getIntensityIndex(points));
+        }
+        assertTrue(rp.getMaterials().stream()
+                .mapToDouble(rp::getIntensityIndex)
+                .allMatch(index -> index >= 0.0 && index <= 1.0));
+    }
+
     @Test
     @Disabled
     public void testReset() {
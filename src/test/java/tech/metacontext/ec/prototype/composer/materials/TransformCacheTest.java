@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.materials;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.Settings;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class TransformCacheTest {
+
+    public TransformCacheTest() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TransformCache.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Settings.TRANSFORM_CACHE_SIZE = 1 << 16;
+        TransformCache.clear();
+    }
+
+    @Test
+    public void testHitByValue() {
+
+        var d = new Dynamics();
+        var result = d.transform(TransformType.MoveForward);
+        assertSame(result, d.transform(TransformType.MoveForward));
+        assertSame(result, d.duplicate().transform(TransformType.MoveForward));
+        assertEquals(1, TransformCache.getMisses());
+        assertEquals(2, TransformCache.getHits());
+        var ps = new PitchSets();
+        assertSame(ps.transform(TransformType.Retrograde),
+                ps.duplicate().transform(TransformType.Retrograde));
+        System.out.println(TransformCache.summary());
+    }
+
+    @Test
+    public void testSameAsComputed() {
+
+        var nr = new NoteRanges();
+        var rp = new RhythmicPoints();
+        for (var type : List.of(TransformType.Repetition, TransformType.Retrograde,
+                TransformType.MoveForward, TransformType.MoveBackward)) {
+            Settings.TRANSFORM_CACHE_SIZE = 0;
+            var expectedNr = nr.transform(type).getMaterials();
+            var expectedRp = rp.transform(type).getMaterials();
+            Settings.TRANSFORM_CACHE_SIZE = 1 << 16;
+            assertEquals(expectedNr, nr.transform(type).getMaterials());
+            assertEquals(expectedRp, rp.transform(type).getMaterials());
+        }
+        assertEquals(0, TransformCache.getHits());
+    }
+
+    @Test
+    public void testSnapshotKey() {
+
+        var rp = new RhythmicPoints();
+        var before = rp.transform(TransformType.Retrograde);
+        var materials = List.copyOf(before.getMaterials());
+        rp.getMaterials().set(0, rp.getMaterials().get(0) + 100);
+        assertNotSame(before, rp.transform(TransformType.Retrograde));
+        assertEquals(materials, before.getMaterials());
+    }
+
+    @Test
+    public void testDisconnectedAndBound() {
+
+        var d = new Dynamics();
+        assertNotSame(d.transform(TransformType.Disconnected),
+                d.transform(TransformType.Disconnected));
+        assertEquals(0, TransformCache.size());
+        Settings.TRANSFORM_CACHE_SIZE = 8;
+        IntStream.range(0, 100).forEach(i -> new Dynamics().transform(TransformType.Retrograde));
+        assertTrue(TransformCache.size() <= 8);
+        assertTrue(TransformCache.getEvictions() > 0);
+        System.out.println(TransformCache.summary());
+    }
+}
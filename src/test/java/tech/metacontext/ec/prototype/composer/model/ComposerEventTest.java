@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ComposerEventTest {
+
+    public ComposerEventTest() {
+    }
+
+    /**
+     * Subscriber requesting one event at a time, stopping the Composer at the
+     * specified generation.
+     */
+    static class Recorder implements Flow.Subscriber<ComposerEvent> {
+
+        final Composer composer;
+        final int stopAt;
+        final List<ComposerEvent> events = new ArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        Flow.Subscription subscription;
+
+        Recorder(Composer composer, int stopAt) {
+            this.composer = composer;
+            this.stopAt = stopAt;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ComposerEvent event) {
+            events.add(event);
+            if (event instanceof ComposerEvent.Generation
+                    && event.getGeneration() == stopAt) {
+                composer.stop();
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        System.out.println("events");
+        var composer = TestCenter.newComposer(20);
+        var recorder = new Recorder(composer, -1);
+        composer.getPublisher().subscribe(recorder);
+        for (int i = 0; i < 8; i++) {
+            composer.sketch().evolve();
+        }
+        composer.close();
+        assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+        var generations = recorder.events.stream()
+                .filter(e -> e instanceof ComposerEvent.Generation)
+                .map(ComposerEvent::getGeneration)
+                .collect(Collectors.toList());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), generations);
+        var conserved = recorder.events.stream()
+                .filter(e -> e instanceof ComposerEvent.Conserved)
+                .map(e -> ((ComposerEvent.Conserved) e).getComposition())
+                .collect(Collectors.toList());
+        assertEquals(composer.getConservatory().size(), conserved.size());
+        conserved.forEach(c -> assertTrue(composer.getConservatory().containsKey(c)));
+        recorder.events.forEach(System.out::println);
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        System.out.println("stop");
+        var composer = TestCenter.newComposer(20);
+        var recorder = new Recorder(composer, 2);
+        composer.getPublisher(Runnable::run).subscribe(recorder);
+        while (!composer.isStopped() && composer.getGenCount() < 50) {
+            composer.sketch().evolve();
+        }
+        composer.close();
+        assertTrue(composer.isStopped());
+        assertEquals(3, composer.getGenCount());
+    }
+}
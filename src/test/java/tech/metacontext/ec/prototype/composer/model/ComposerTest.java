@@ -53,6 +53,31 @@ public class ComposerTest {
         assertEquals(tc.getComposer().getSize(), tc.getComposer().getPopulationSize());
     }
 
+    /**
+     * Parents are bred from viable compositions only, as long as any is.
+     * Half of the population is bounded below the conservation score here.
+     */
+    @Test
+    public void testCulling() throws Exception {
+        System.out.println("culling");
+        var composer = tc.getComposer();
+        composer.prepare();
+        var population = composer.getPopulation();
+        var culled = population.subList(0, population.size() / 2);
+        culled.forEach(c -> c.getEval().setUpperBound(0.0));
+        culled.forEach(c -> assertEquals(composer.getAim().isCompleted(c), composer.isViable(c)));
+        assertTrue(population.stream().anyMatch(composer::isViable));
+        for (int i = 0; i < 50; i++) {
+            assertTrue(composer.isViable(composer.breed(population).parent));
+        }
+        population.forEach(c -> c.getEval().setUpperBound(0.0));
+        assertNotNull(composer.breed(population).parent);
+        composer.prepare();
+        population.forEach(c -> assertEquals(c.getEval().getStylesByCost().stream()
+                .mapToDouble(s -> s.getUpperBound(c)).min().getAsDouble(),
+                c.getEval().getUpperBound()));
+    }
+
     /**
      * Test of crossover method, of class Composer.
      */
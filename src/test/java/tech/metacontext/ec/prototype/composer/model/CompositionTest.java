@@ -15,11 +15,19 @@
  */
 package tech.metacontext.ec.prototype.composer.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import tech.metacontext.ec.prototype.composer.factory.CompositionFactory;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
@@ -27,7 +35,12 @@ import org.junit.jupiter.api.Disabled;
 import tech.metacontext.ec.prototype.abs.Population;
 import tech.metacontext.ec.prototype.composer.Settings;
 import tech.metacontext.ec.prototype.composer.TestCenter;
+import tech.metacontext.ec.prototype.composer.enums.MaterialType;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
 import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+import tech.metacontext.ec.prototype.composer.materials.MusicMaterial;
+import tech.metacontext.ec.prototype.composer.styles.GoldenSectionClimax;
+import tech.metacontext.ec.prototype.composer.styles.UnaccompaniedCello;
 
 /**
  *
@@ -72,6 +85,117 @@ public class CompositionTest {
 
     }
 
+    /**
+     * Rendering the same seed and connectors gives the same nodes, whatever
+     * the random stream bound, Disconnected connectors included. Another run
+     * seed renders the Disconnected nodes otherwise.
+     */
+    @Test
+    public void testRenderPure() {
+
+        System.out.println("renderPure");
+        var instance = disconnecting();
+        var first = Settings.withRandom(new Random(1), instance::render);
+        var second = Settings.withRandom(new Random(2), instance::render);
+        assertEquals(instance.getSize(), first.size());
+        assertEquals(first, second);
+        assertEquals(first, RenderCache.render(instance.getSeed(), instance.getConnectors(), tc.getComposer().getSeed()));
+        assertNotEquals(first.get(0), first.get(1));
+        assertNotEquals(mats(first), mats(RenderCache.render(instance.getSeed(),
+                instance.getConnectors(), tc.getComposer().getSeed() + 1)));
+        first.forEach(System.out::println);
+    }
+
+    /**
+     * A composition with every other connector Disconnected in all
+     * materials.
+     */
+    static Composition disconnecting() {
+
+        var types = new EnumMap<MaterialType, TransformType>(MaterialType.class);
+        for (var mt : MaterialType.values()) {
+            types.put(mt, TransformType.Disconnected);
+        }
+        var disconnected = Connector.of(types);
+        var instance = compositionFactory.newInstance();
+        for (int i = 0; i < 5; i++) {
+            instance.addConnector(i % 2 == 0 ? disconnected : Connector.getSampler().sample());
+        }
+        return instance;
+    }
+
+    /**
+     * Rendering gives nodes of the same materials after the intern pools are
+     * evicted and from a seed deserialized, which has no PitchSetFactory.
+     */
+    @Test
+    public void testRenderAfterEviction() throws Exception {
+
+        System.out.println("renderAfterEviction");
+        var instance = disconnecting();
+        var first = mats(instance.render());
+        int size = Settings.INTERN_POOL_SIZE;
+        Settings.INTERN_POOL_SIZE = 1;
+        try {
+            sketchNodeFactory.newInstance();
+        } finally {
+            Settings.INTERN_POOL_SIZE = size;
+        }
+        assertEquals(first, mats(RenderCache.render(instance.getSeed(), instance.getConnectors(), tc.getComposer().getSeed())));
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(instance.getSeed());
+        }
+        SketchNode seed;
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            seed = (SketchNode) in.readObject();
+        }
+        assertEquals(first, mats(RenderCache.render(seed, instance.getConnectors(), tc.getComposer().getSeed())));
+    }
+
+    static List<Map<MaterialType, ? extends MusicMaterial>> mats(List<SketchNode> nodes) {
+
+        return nodes.stream().map(SketchNode::getMats).collect(Collectors.toList());
+    }
+
+    /**
+     * Styles are rated cheapest first, and GoldenSectionClimax is left lazy
+     * for compositions UnaccompaniedCello already rates zero, without
+     * changing their minimum scores.
+     */
+    @Test
+    public void testLazyEvaluation() {
+
+        System.out.println("lazyEvaluation");
+        var composer = tc.getComposer();
+        var cello = composer.getStyles().stream()
+                .filter(s -> s instanceof UnaccompaniedCello).findFirst().get();
+        var gsc = composer.getStyles().stream()
+                .filter(s -> s instanceof GoldenSectionClimax).findFirst().get();
+        assertEquals(List.of(cello, gsc), composer.getPopulation().get(0)
+                .getEval().getStylesByCost());
+        int lazy = 0;
+        for (var c : composer.getPopulation()) {
+            c.getRenderedChecked("CompositionTest::testLazyEvaluation");
+            c.updateEval();
+            double min = composer.getRawScore(c);
+            assertEquals(c.getScore(cello) == 0.0, c.getEval().isLazy(gsc));
+            if (c.getEval().isLazy(gsc)) {
+                lazy++;
+                assertNull(c.getScore(gsc));
+            }
+            Settings.LAZY_EVALUATION = false;
+            try {
+                c.updateEval();
+            } finally {
+                Settings.LAZY_EVALUATION = true;
+            }
+            assertTrue(c.getEval().getLazy().isEmpty());
+            assertEquals(min, composer.getRawScore(c));
+        }
+        System.out.printf("%d of %d lazy\n", lazy, composer.getPopulationSize());
+    }
+
     @Test
     public void ObjectCopy() {
 
@@ -125,8 +249,8 @@ public class CompositionTest {
     public void testGetConnectors() {
         System.out.println("getConnectors");
         Composition instance = null;
-        LinkedList<Connector> expResult = null;
-        LinkedList<Connector> result = instance.getConnectors();
+        ConnectorSequence expResult = null;
+        ConnectorSequence result = instance.getConnectors();
         assertEquals(expResult, result);
         // TODO review the generated test code and remove the default call to fail.
         fail("The test case is a prototype.");
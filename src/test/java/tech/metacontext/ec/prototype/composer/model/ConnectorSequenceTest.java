@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+import tech.metacontext.ec.prototype.composer.factory.ConnectorFactory;
+import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ConnectorSequenceTest {
+
+    public ConnectorSequenceTest() {
+    }
+
+    /**
+     * Every change advances the version.
+     */
+    @Test
+    public void testVersion() {
+        System.out.println("version");
+        var factory = ConnectorFactory.getInstance();
+        var c0 = factory.newConnector();
+        var c1 = factory.newConnector();
+        var c2 = factory.newConnector();
+        var instance = new ConnectorSequence();
+        long version = instance.getVersion();
+        instance.addAll(List.of(c0, c2));
+        assertTrue(instance.getVersion() > version);
+        version = instance.getVersion();
+        instance.add(1, c1);
+        assertEquals(List.of(c0, c1, c2), instance);
+        assertTrue(instance.getVersion() > version);
+        version = instance.getVersion();
+        assertSame(c1, instance.set(1, c2));
+        assertTrue(instance.getVersion() > version);
+        version = instance.getVersion();
+        assertSame(c0, instance.remove(0));
+        assertEquals(List.of(c2, c2), instance);
+        assertTrue(instance.getVersion() > version);
+        version = instance.getVersion();
+        instance.get(1);
+        assertEquals(version, instance.getVersion());
+        assertThrows(IndexOutOfBoundsException.class, () -> instance.get(2));
+    }
+
+    /**
+     * Copies share the tree with their origin and are unaffected by changes
+     * of each other, against random operations on an ArrayList.
+     */
+    @Test
+    public void testPersistence() {
+        System.out.println("persistence");
+        var factory = ConnectorFactory.getInstance();
+        var random = new Random(1);
+        var expected = new ArrayList<Connector>();
+        var instance = new ConnectorSequence();
+        for (int i = 0; i < 2000; i++) {
+            var copy = new ConnectorSequence(instance);
+            var snapshot = new ArrayList<>(expected);
+            int op = random.nextInt(4);
+            if (op == 0 || expected.size() < 2) {
+                var c = factory.newConnector();
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, c);
+                instance.add(index, c);
+            } else if (op == 1) {
+                var c = factory.newConnector();
+                int index = random.nextInt(expected.size());
+                expected.set(index, c);
+                instance.set(index, c);
+            } else if (op == 2) {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), instance.remove(index));
+            } else {
+                var c = factory.newConnector();
+                expected.add(c);
+                instance.add(c);
+            }
+            assertEquals(snapshot, copy);
+        }
+        assertEquals(expected, instance);
+        assertEquals(expected, List.of(instance.toArray()));
+    }
+
+    /**
+     * Rendering is required after connectors modified or seed reset, and
+     * eval follows every rendering.
+     */
+    @Test
+    public void testReRenderRequired() throws Exception {
+        System.out.println("reRenderRequired");
+        var composer = TestCenter.newComposer(10);
+        var c = composer.getPopulation().get(0);
+        c.elongate();
+        c.getRenderedChecked("test");
+        assertFalse(c.ifReRenderRequired());
+        assertTrue(c.isConsistent());
+        c.addConnector(ConnectorFactory.getInstance().newConnector());
+        assertTrue(c.ifReRenderRequired());
+        c.getRenderedChecked("test");
+        assertFalse(c.ifReRenderRequired());
+        assertEquals(c.getSize(), c.getRendered().size());
+        c.resetSeed(SketchNodeFactory.getInstance().newInstance(composer.getInit()));
+        assertTrue(c.ifReRenderRequired());
+        c.getRenderedChecked("test");
+        var scores = c.getEval().getScores().toString();
+        c.render();
+        c.getRenderedChecked("test");
+        assertTrue(c.isConsistent());
+        System.out.println(scores + " -> " + c.getEval().getScores());
+    }
+}
@@ -20,7 +20,13 @@ import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Disabled;
 import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.stream.Stream;
+import static tech.metacontext.ec.prototype.composer.Parameters.CHANCE_TOTAL_CONNECTING_STATE;
+import static org.junit.jupiter.api.Assertions.*;
 import static tech.metacontext.ec.prototype.composer.enums.MaterialType.*;
+import tech.metacontext.ec.prototype.composer.enums.MaterialType;
 import tech.metacontext.ec.prototype.composer.enums.TransformType;
 import tech.metacontext.ec.prototype.composer.styles.FreeStyle;
 
@@ -41,25 +47,69 @@ public class ConnectorTest {
 
     @Test
     public void testTransform() {
-        Connector instance = connectorFactory.newConnector();
-        instance.addTransformType(DYNAMICS, TransformType.MoveForward);
-        instance.addTransformType(NOTE_RANGES, TransformType.MoveForward);
-        instance.addTransformType(PITCH_SETS, TransformType.MoveForward);
-        instance.addTransformType(RHYTHMIC_POINTS, TransformType.MoveForward);
-        instance.setPrevious(sketchNodeFactory.newInstance());
-        System.out.println(instance.getPrevious());
-        instance.transform();
-        System.out.println(instance.getNext());
+        var types = new EnumMap<MaterialType, TransformType>(MaterialType.class);
+        types.put(DYNAMICS, TransformType.MoveForward);
+        types.put(NOTE_RANGES, TransformType.MoveForward);
+        types.put(PITCH_SETS, TransformType.MoveForward);
+        types.put(RHYTHMIC_POINTS, TransformType.MoveForward);
+        Connector instance = Connector.of(types);
+        var previous = sketchNodeFactory.newInstance();
+        System.out.println(previous);
+        System.out.println(instance.transform(previous));
         System.out.println("----------------------------------------------");
-        Connector instance2 = connectorFactory.newConnector();
-        instance2.addTransformType(DYNAMICS, TransformType.MoveBackward);
-        instance2.addTransformType(NOTE_RANGES, TransformType.MoveBackward);
-        instance2.addTransformType(PITCH_SETS, TransformType.MoveBackward);
-        instance2.addTransformType(RHYTHMIC_POINTS, TransformType.MoveBackward);
-        instance2.setPrevious(sketchNodeFactory.newInstance());
-        System.out.println(instance2.getPrevious());
-        instance2.transform();
-        System.out.println(instance2.getNext());
+        types.replaceAll((mt, tt) -> TransformType.MoveBackward);
+        Connector instance2 = Connector.of(types);
+        previous = sketchNodeFactory.newInstance();
+        System.out.println(previous);
+        System.out.println(instance2.transform(previous));
+    }
+
+    /**
+     * Test of getCode method, codes are unique and unpacked to the same
+     * TransformTypes.
+     */
+    @Test
+    public void testGetCode() {
+        System.out.println("getCode");
+        var codes = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            var conn = connectorFactory.newConnector();
+            var types = conn.getTransformTypes();
+            assertEquals(MaterialType.values().length, types.size());
+            assertEquals(conn.getCode(), Connector.encode(types));
+            assertSame(conn, Connector.of(conn.getCode()));
+            assertSame(conn, Connector.of(types));
+            codes.add(conn.getCode());
+        }
+        assertTrue(codes.stream().allMatch(code -> code >= 0 && code < Connector.CODES));
+        assertEquals(625, Connector.CODES);
+        assertThrows(IndexOutOfBoundsException.class, () -> Connector.of(Connector.CODES));
+    }
+
+    /**
+     * Test of getSampler method, of class Connector.
+     */
+    @Test
+    public void testGetSampler() {
+        System.out.println("getSampler");
+        var sampler = Connector.getSampler();
+        assertEquals(1.0, sampler.getOutcomes().stream()
+                .mapToDouble(sampler::getProbability).sum(), 1e-9);
+        var types = new EnumMap<MaterialType, TransformType>(MaterialType.class);
+        for (var mt : MaterialType.values()) {
+            types.put(mt, TransformType.Repetition);
+        }
+        var uniform = Connector.of(types);
+        double p = TransformType.getSampler().getProbability(TransformType.Repetition);
+        double total = CHANCE_TOTAL_CONNECTING_STATE.getDouble();
+        assertEquals(total * p + (1 - total) * Math.pow(p, 4),
+                sampler.getProbability(uniform), 1e-9);
+        int n = 100_000;
+        long count = Stream.generate(sampler::sample).limit(n)
+                .filter(uniform::equals).count();
+        System.out.printf("%s: %.4f expected, %.4f sampled\n", uniform,
+                sampler.getProbability(uniform), count * 1.0 / n);
+        assertEquals(sampler.getProbability(uniform), count * 1.0 / n, 0.01);
     }
 
     @Test
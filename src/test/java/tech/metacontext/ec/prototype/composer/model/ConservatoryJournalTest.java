@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class ConservatoryJournalTest {
+
+    @TempDir
+    Path folder;
+
+    public ConservatoryJournalTest() {
+    }
+
+    /**
+     * Every conserved composition is journaled once, in structured and text
+     * forms, synced by the end of each generation, and a torn record at the
+     * end is skipped.
+     */
+    @Test
+    public void testJournal() throws Exception {
+        System.out.println("journal");
+        var composer = TestCenter.newComposer(20);
+        var path = folder.resolve("test.journal");
+        composer.openJournal(path);
+        while (composer.getConservatory().size() < 3 && composer.getGenCount() < 50) {
+            composer.sketch().evolve();
+            assertEquals(composer.getConservatory().size(),
+                    ConservatoryJournal.readRecords(path).size());
+        }
+        composer.close();
+        assertNull(composer.getJournal());
+        var records = ConservatoryJournal.readRecords(path);
+        assertEquals(composer.getConservatory().size(), records.size());
+        composer.getConservatory().keySet().forEach(c -> {
+            assertEquals(1, records.stream()
+                    .filter(r -> r.contains("\"id\":\"" + c.getId() + "\""))
+                    .count());
+        });
+        var text = Files.readString(path);
+        composer.getConservatory().keySet().forEach(c
+                -> assertTrue(text.contains(c.toString())));
+
+        Files.writeString(path, ConservatoryJournal.MARK + "{\"id\":\"torn\"}\nSketchNode",
+                StandardOpenOption.APPEND);
+        assertEquals(records, ConservatoryJournal.readRecords(path));
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        System.out.println("sync");
+        var composer = TestCenter.newComposer(10);
+        var c = composer.getPopulation().get(0);
+        c.getRenderedChecked(null);
+        var path = folder.resolve("sync.journal");
+        try (var journal = new ConservatoryJournal(path, 2, Long.MAX_VALUE)) {
+            journal.append(c, 0, 0.0);
+            assertEquals(0L, Files.size(path));
+            journal.append(c, 0, 0.0);
+            assertEquals(2, ConservatoryJournal.readRecords(path).size());
+            journal.append(c, 1, 0.0);
+        }
+        assertEquals(3, ConservatoryJournal.readRecords(path).size());
+    }
+
+    /**
+     * Structured form is valid JSON under any default locale, with scores not
+     * finite written as null.
+     */
+    @Test
+    public void testStructured() throws Exception {
+        System.out.println("structured");
+        var composer = TestCenter.newComposer(10);
+        var c = composer.getPopulation().get(0);
+        c.getRenderedChecked(null);
+        var styles = composer.getStyles();
+        c.getEval().getScores().put(styles.get(0), 0.5);
+        c.getEval().getScores().put(styles.get(1), Double.NaN);
+        var locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            var structured = ConservatoryJournal.structured(c, 3, Double.NEGATIVE_INFINITY);
+            System.out.println(structured);
+            assertTrue(structured.contains("\"score\":null,"));
+            assertTrue(structured.matches(".*\"scores\":\\{[^}]*:0\\.500000[^}]*}.*"));
+            assertTrue(structured.matches(".*\"scores\":\\{[^}]*:null[^}]*}.*"));
+            assertFalse(structured.contains("NaN"));
+            assertFalse(structured.contains("0,5"));
+            assertEquals(0.25, Double.parseDouble(ConservatoryJournal
+                    .structured(c, 3, 0.25).replaceAll(".*\"score\":([^,]*),.*", "$1")));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    /**
+     * A record is synced on the next append once syncMillis has passed, and
+     * records pending are synced at the end of a generation.
+     */
+    @Test
+    public void testSyncMillis() throws Exception {
+        System.out.println("syncMillis");
+        var composer = TestCenter.newComposer(10);
+        var c = composer.getPopulation().get(0);
+        c.getRenderedChecked(null);
+        var path = folder.resolve("millis.journal");
+        try (var journal = new ConservatoryJournal(path, 100, 200)) {
+            journal.append(c, 0, 0.0);
+            assertEquals(0L, Files.size(path));
+            Thread.sleep(250);
+            journal.append(c, 0, 0.0);
+            assertEquals(2, ConservatoryJournal.readRecords(path).size());
+            journal.append(c, 1, 0.0);
+            assertEquals(2, ConservatoryJournal.readRecords(path).size());
+            journal.syncPending();
+            assertEquals(3, ConservatoryJournal.readRecords(path).size());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.Settings;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+import tech.metacontext.ec.prototype.composer.model.DebugTrail.Event;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class DebugTrailTest {
+
+    public DebugTrailTest() {
+    }
+
+    /**
+     * Test of add method, only the latest events are kept.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        var trail = new DebugTrail(4);
+        for (int i = 0; i < 10; i++) {
+            trail.add(i % 2 == 0 ? Event.CONSERVATION_CHECK : Event.CONSERVATION_FAILED, i);
+        }
+        System.out.println(trail);
+        assertEquals(10, trail.getCount());
+        assertEquals(4, trail.size());
+        assertEquals(Event.CONSERVATION_CHECK, trail.getEvent(0));
+        assertEquals(6, trail.getValue(0));
+        assertEquals(Event.CONSERVATION_FAILED, trail.getEvent(3));
+        assertEquals(9, trail.getValue(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> trail.getValue(4));
+        trail.clear();
+        assertEquals(0, trail.size());
+    }
+
+    /**
+     * Compositions carry and serialize a trail only if enabled.
+     */
+    @Test
+    public void testOptIn() throws Exception {
+        System.out.println("optIn");
+        var composer = TestCenter.newComposer(10);
+        var disabled = composer.getPopulation().get(0);
+        assertNull(disabled.getDebug());
+        disabled.trace(Event.ARCHIVING, 0);
+        Settings.DEBUG_TRAIL = true;
+        try {
+            var enabled = new Composition(composer, disabled.getNumericId());
+            enabled.getConnectors().addAll(disabled.getConnectors());
+            enabled.setSeed(disabled.getSeed());
+            for (int i = 0; i < 100; i++) {
+                enabled.trace(Event.CONSERVATION_CHECK, i);
+            }
+            assertEquals(Settings.DEBUG_TRAIL_CAPACITY, enabled.getDebug().size());
+            int without = DebugTrail.serializedSize(disabled),
+                    with = DebugTrail.serializedSize(enabled);
+            System.out.printf("Serialized: %d bytes without trail, %d bytes with.\n",
+                    without, with);
+            assertTrue(without < with);
+        } finally {
+            Settings.DEBUG_TRAIL = false;
+        }
+    }
+}
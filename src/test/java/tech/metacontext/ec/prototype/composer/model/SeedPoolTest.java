@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.Settings;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class SeedPoolTest {
+
+    static final SketchNodeFactory FACTORY = SketchNodeFactory.getInstance();
+
+    public SeedPoolTest() {
+    }
+
+    /**
+     * The pool fills up to its capacity with qualified seeds only, here every
+     * second candidate, and takes beyond what is pooled are starved.
+     */
+    @Test
+    public void testTake() throws Exception {
+        System.out.println("take");
+        var candidates = new AtomicInteger();
+        var fallback = new AtomicInteger();
+        try (var pool = new SeedPool(FACTORY::newInstance,
+                node -> candidates.incrementAndGet() % 2 == 0, 8, 0)) {
+            for (int i = 0; i < 100 && pool.size() < 8; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(8, pool.size());
+            pool.close();
+            Thread.sleep(200);
+            assertFalse(pool.isRunning());
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(pool.take(() -> {
+                    fallback.incrementAndGet();
+                    return FACTORY.newInstance();
+                }));
+            }
+            System.out.println(pool);
+            assertEquals(8, pool.getProduced());
+            assertEquals(8, pool.getRejected());
+            assertEquals(8, pool.getTaken());
+            assertEquals(2, pool.getStarved());
+            assertEquals(2, fallback.get());
+            assertEquals(0.2, pool.getStarvationRate(), 1e-9);
+            assertEquals(0, pool.size());
+        }
+    }
+
+    /**
+     * The producer survives a generator failing, and starved takes draw from
+     * the fallback until qualified, up to SEED_POOL_FALLBACK_TRIES times.
+     */
+    @Test
+    public void testFallback() throws Exception {
+        System.out.println("fallback");
+        var draws = new AtomicInteger();
+        try (var pool = new SeedPool(() -> {
+            throw new IllegalStateException("generator failing");
+        }, node -> true, 4, 0)) {
+            Thread.sleep(300);
+            assertTrue(pool.isRunning());
+            assertTrue(pool.getFailed() > 0);
+            assertEquals(0, pool.size());
+            Supplier<SketchNode> fallback = () -> {
+                draws.incrementAndGet();
+                return FACTORY.newInstance();
+            };
+            assertNotNull(pool.take(fallback, node -> draws.get() % 3 == 0));
+            assertEquals(3, draws.get());
+            assertEquals(0, pool.getUnqualified());
+            assertNotNull(pool.take(fallback, node -> false));
+            assertEquals(3 + Settings.SEED_POOL_FALLBACK_TRIES, draws.get());
+            assertEquals(1, pool.getUnqualified());
+            assertEquals(2, pool.getStarved());
+            System.out.println(pool);
+        }
+    }
+
+    /**
+     * A Composer reseeds from its pool when enabled and stops it on closing.
+     */
+    @Test
+    public void testComposer() throws Exception {
+        System.out.println("composer");
+        boolean enabled = Settings.SEED_POOL;
+        Settings.SEED_POOL = true;
+        try {
+            var composer = TestCenter.newComposer(20);
+            while (composer.getGenCount() < 5) {
+                composer.sketch().evolve();
+            }
+            var pool = composer.getSeedPool();
+            System.out.println(pool);
+            assertTrue(pool.getTaken() + pool.getStarved() > 0);
+            assertTrue(pool.getRejected() > 0);
+            composer.close();
+            assertFalse(pool.isRunning());
+        } finally {
+            Settings.SEED_POOL = enabled;
+        }
+    }
+}
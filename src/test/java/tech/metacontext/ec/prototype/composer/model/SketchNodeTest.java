@@ -17,7 +17,9 @@ package tech.metacontext.ec.prototype.composer.model;
 
 import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Disabled;
@@ -44,13 +46,48 @@ public class SketchNodeTest {
         SketchNode node1 = sketchNodeFactory.newInstance(),
                 node2 = node1,
                 node3 = sketchNodeFactory.forArchiving(node1);
-        node1.getMat(PITCH_SETS).random();
+        assertTrue(node1.isFrozen());
+        assertSame(node1, node3);
+        assertThrows(IllegalStateException.class,
+                () -> node1.getMat(PITCH_SETS).random());
+        var mutable = new SketchNode();
+        var mats = new EnumMap<MaterialType, MusicMaterial>(MaterialType.class);
+        Stream.of(MaterialType.values()).forEach(mt -> mats.put(mt, mt.getInstance()));
+        mutable.setMats(mats);
+        var copy = sketchNodeFactory.forArchiving(mutable);
+        mutable.getMat(PITCH_SETS).random();
         assertEquals(node1, node2);
-        assertEquals(node1, node3);
-        assertEquals(node1.getMat(PITCH_SETS),
-                node2.getMat(PITCH_SETS));
-        assertNotEquals(node1.getMat(PITCH_SETS),
-                node3.getMat(PITCH_SETS));
+        assertEquals(mutable, copy);
+        assertNotEquals(mutable.getMat(PITCH_SETS), copy.getMat(PITCH_SETS));
+    }
+
+    @Test
+    public void testIntern() {
+
+        var node = sketchNodeFactory.newRandomInstance();
+        var copy = new SketchNode();
+        var mats = new EnumMap<MaterialType, MusicMaterial>(MaterialType.class);
+        node.getMats().forEach((mt, mm) -> {
+            var mat = mt.getInstance();
+            mat.setDivision(mm.getDivision());
+            mat.setMaterials(mm.getMaterials());
+            mats.put(mt, mat);
+        });
+        copy.setMats(mats);
+        assertFalse(copy.isFrozen());
+        var interned = copy.intern();
+        System.out.println(interned);
+        Stream.of(MaterialType.values()).forEach(mt -> {
+            assertEquals(node.getMat(mt), interned.getMat(mt));
+            assertEquals(node.getMat(mt).hashCode(), interned.getMat(mt).hashCode());
+        });
+        assertSame(node.getMat(DYNAMICS), node.getMat(DYNAMICS).duplicate());
+        assertSame(interned, sketchNodeFactory.forMutation(interned));
+        var calls = new int[1];
+        Integer first = interned.memoize(this, n -> ++calls[0]),
+                second = interned.memoize(this, n -> ++calls[0]);
+        assertEquals(first, second);
+        assertEquals(1, calls[0]);
     }
 
     /**
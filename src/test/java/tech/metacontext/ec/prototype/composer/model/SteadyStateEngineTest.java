@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import tech.metacontext.ec.prototype.composer.TestCenter;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class SteadyStateEngineTest {
+
+    public SteadyStateEngineTest() {
+    }
+
+    /**
+     * Test of run method, of class SteadyStateEngine.
+     */
+    @Test
+    public void testRun() throws Exception {
+        System.out.println("run");
+        var composer = TestCenter.newComposer(20);
+        var engine = new SteadyStateEngine(composer, 4);
+        var worst = engine.getWorst();
+        double worstScore = composer.getMinScore(worst),
+                worstRawScore = composer.getRawScore(worst);
+        engine.run(200);
+        assertEquals(200, engine.getBirths());
+        assertEquals(10, composer.getGenCount());
+        assertEquals(composer.getSize(), composer.getPopulationSize());
+        var newWorst = engine.getWorst();
+        System.out.printf("worst: %.3f/%.3f -> %.3f/%.3f, conserved = %d\n",
+                worstScore, worstRawScore,
+                composer.getMinScore(newWorst), composer.getRawScore(newWorst),
+                composer.getConservatory().size());
+        assertTrue(composer.getMinScore(newWorst) > worstScore
+                || composer.getMinScore(newWorst) == worstScore
+                && composer.getRawScore(newWorst) >= worstRawScore);
+        assertTrue(composer.getPopulation().stream()
+                .noneMatch(composer.getConservatory()::containsKey));
+    }
+
+    /**
+     * Selection by rank walks the population best first: threshold 0.0 gives
+     * the best matching composition, 1.0 any matching one.
+     */
+    @Test
+    public void testSelect() throws Exception {
+        System.out.println("select");
+        var composer = TestCenter.newComposer(20);
+        var engine = new SteadyStateEngine(composer, 1);
+        var population = engine.getPopulation();
+        assertSame(engine.getBest(), engine.select(c -> true, 0.0));
+        var second = population.get(1);
+        assertSame(second, engine.select(c -> c != population.get(0), 0.0));
+        assertNull(engine.select(c -> false, 0.5));
+        assertNull(engine.select(c -> true, 1.5));
+        for (int i = 0; i < 50; i++) {
+            var c = engine.select(c1 -> c1 != second, 1.0);
+            assertTrue(population.contains(c));
+            assertNotSame(second, c);
+        }
+    }
+
+    @Test
+    public void testAdaptive() throws Exception {
+        System.out.println("adaptive");
+        var composer = TestCenter.newComposer(20);
+        composer.setAdaptive(true);
+        assertThrows(IllegalStateException.class,
+                () -> new SteadyStateEngine(composer, 2));
+    }
+}
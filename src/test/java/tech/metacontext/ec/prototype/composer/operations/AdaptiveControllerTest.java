@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.operations;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import static tech.metacontext.ec.prototype.composer.operations.AdaptiveController.*;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class AdaptiveControllerTest {
+
+    public AdaptiveControllerTest() {
+    }
+
+    @Test
+    public void testInitialChances() {
+        System.out.println("initial chances");
+        var instance = new AdaptiveController(SELECTION_THRESHOLD.getDouble());
+        assertEquals(CHANCE_CROSSOVER_IF_COMPLETED.getDouble(), instance.getCrossover().getChance());
+        assertEquals(CHANCE_RESEEDING.getDouble(), instance.getReseeding().getChance());
+        assertEquals(CHANCE_ELONGATION_IF_COMPLETED.getDouble(), instance.getElongation().getChance());
+        assertEquals(SELECTION_THRESHOLD.getDouble(), instance.getThreshold());
+    }
+
+    /**
+     * Chances move toward the option rewarded, within MIN_CHANCE.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("update");
+        var instance = new AdaptiveController(SELECTION_THRESHOLD.getDouble());
+        for (int gen = 0; gen < 30; gen++) {
+            IntStream.range(0, 50).forEach(i -> {
+                instance.recordChild(true, true, false, 0.05);
+                instance.recordChild(true, false, true, 0.0);
+                instance.recordElongation(-0.1);
+            });
+            instance.update();
+        }
+        System.out.println(instance);
+        assertEquals(1.0 - MIN_CHANCE, instance.getCrossover().getChance(), 1e-3);
+        assertEquals(MIN_CHANCE, instance.getReseeding().getChance(), 1e-3);
+        assertEquals(MIN_CHANCE, instance.getElongation().getChance(), 1e-3);
+    }
+
+    /**
+     * Children crossover was not offered for leave its chance alone, while
+     * reseeding is credited for every child.
+     */
+    @Test
+    public void testNotOffered() {
+        System.out.println("not offered");
+        var instance = new AdaptiveController(SELECTION_THRESHOLD.getDouble());
+        instance.update();
+        double chance = instance.getCrossover().getChance();
+        for (int gen = 0; gen < 10; gen++) {
+            IntStream.range(0, 50).forEach(i -> instance.recordChild(false, false, true, 0.05));
+            instance.update();
+        }
+        assertEquals(0, instance.getCrossover().getTaken().getCount());
+        assertEquals(0, instance.getCrossover().getDeclined().getCount());
+        assertEquals(chance, instance.getCrossover().getChance(), 1e-9);
+        assertEquals(500, instance.getReseeding().getTaken().getCount());
+    }
+
+    /**
+     * Every threshold level is tried before the best one is exploited.
+     */
+    @Test
+    public void testThreshold() {
+        System.out.println("threshold");
+        var instance = new AdaptiveController(0.85);
+        int levels = THRESHOLD_LEVELS.length + 1;
+        var tried = new java.util.HashSet<Double>();
+        for (int gen = 0; gen < 200; gen++) {
+            double threshold = instance.getThreshold();
+            tried.add(threshold);
+            instance.recordChild(false, false, false, threshold == 0.7 ? 0.05 : 0.01);
+            instance.update();
+        }
+        assertEquals(levels, tried.size());
+        assertEquals(0.7, instance.getThreshold());
+    }
+}
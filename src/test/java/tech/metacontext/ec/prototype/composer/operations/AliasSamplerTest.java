@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.composer.operations;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.metacontext.ec.prototype.composer.Parameters.*;
+import tech.metacontext.ec.prototype.composer.enums.ConnectingState;
+import tech.metacontext.ec.prototype.composer.enums.TransformType;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class AliasSamplerTest {
+
+    static final int SAMPLES = 200000;
+    /**
+     * Critical values of chi-square distribution at significance level 0.001,
+     * indexed by degree of freedom.
+     */
+    static final double[] CRITICAL = {Double.NaN, 10.828, 13.816, 16.266, 18.467};
+
+    public AliasSamplerTest() {
+    }
+
+    static <E> double chiSquare(AliasSampler<E> sampler, List<E> outcomes,
+            double[] expected, Random random) {
+
+        var counts = new int[outcomes.size()];
+        IntStream.range(0, SAMPLES)
+                .forEach(i -> counts[outcomes.indexOf(sampler.sample(random))]++);
+        System.out.println(outcomes + " -> " + java.util.Arrays.toString(counts));
+        return IntStream.range(0, counts.length)
+                .mapToDouble(i -> Math.pow(counts[i] - SAMPLES * expected[i], 2)
+                / (SAMPLES * expected[i]))
+                .sum();
+    }
+
+    @Test
+    public void testTransformType() {
+        System.out.println("TransformType");
+        var types = List.of(TransformType.values());
+        double[] weights = {
+            CHANCE_REPETITION.getDouble(),
+            CHANCE_MOVEFORWARD.getDouble(),
+            CHANCE_MOVEBACKWARD.getDouble(),
+            CHANCE_RETROGRADE.getDouble(),
+            CHANCE_DISCONNECTED.getDouble()};
+        double sum = IntStream.range(0, weights.length).mapToDouble(i -> weights[i]).sum();
+        var expected = IntStream.range(0, weights.length)
+                .mapToDouble(i -> weights[i] / sum).toArray();
+        var sampler = TransformType.getSampler();
+        types.forEach(tt -> assertEquals(expected[tt.ordinal()], sampler.getProbability(tt), 1e-12));
+        double chi = chiSquare(sampler, types, expected, new Random(2019));
+        System.out.println("chi-square = " + chi);
+        assertTrue(chi < CRITICAL[types.size() - 1]);
+    }
+
+    /**
+     * Compare with the former rejection sampling of TransformType.
+     */
+    @Test
+    public void testTransformTypeAgainstRejection() {
+        System.out.println("TransformType against rejection sampling");
+        var types = TransformType.values();
+        var random = new Random(2018);
+        double[] weights = {
+            CHANCE_REPETITION.getDouble(),
+            CHANCE_MOVEFORWARD.getDouble(),
+            CHANCE_MOVEBACKWARD.getDouble(),
+            CHANCE_RETROGRADE.getDouble(),
+            CHANCE_DISCONNECTED.getDouble()};
+        var legacy = new int[types.length];
+        var alias = new int[types.length];
+        IntStream.range(0, SAMPLES).forEach(i -> {
+            legacy[random.ints(0, types.length)
+                    .filter(t -> random.nextDouble() < weights[t])
+                    .findFirst().getAsInt()]++;
+            alias[TransformType.getSampler().sampleIndex(random)]++;
+        });
+        double chi = IntStream.range(0, types.length)
+                .mapToDouble(i -> Math.pow(legacy[i] - alias[i], 2)
+                / (legacy[i] + alias[i]))
+                .sum();
+        System.out.println("chi-square = " + chi);
+        assertTrue(chi < CRITICAL[types.length - 1]);
+    }
+
+    @Test
+    public void testMutationType() {
+        System.out.println("MutationType");
+        var types = List.of(MutationType.values());
+        double chi = chiSquare(MutationType.getSampler(), types,
+                new double[]{1.0 / 3, 1.0 / 3, 1.0 / 3}, new Random(2019));
+        System.out.println("chi-square = " + chi);
+        assertTrue(chi < CRITICAL[types.size() - 1]);
+    }
+
+    @Test
+    public void testConnectingState() {
+        System.out.println("ConnectingState");
+        double p = CHANCE_TOTAL_CONNECTING_STATE.getDouble();
+        double chi = chiSquare(ConnectingState.getSampler(),
+                List.of(ConnectingState.values()),
+                new double[]{p, 1.0 - p}, new Random(2019));
+        System.out.println("chi-square = " + chi);
+        assertTrue(chi < CRITICAL[1]);
+    }
+
+    @Test
+    public void testOfChance() {
+        System.out.println("ofChance");
+        double p = CHANCE_RESEEDING.getDouble();
+        double chi = chiSquare(AliasSampler.ofChance(p), List.of(true, false),
+                new double[]{p, 1.0 - p}, new Random(2019));
+        System.out.println("chi-square = " + chi);
+        assertTrue(chi < CRITICAL[1]);
+        var random = new Random(2019);
+        assertTrue(IntStream.range(0, 1000)
+                .allMatch(i -> AliasSampler.ofChance(1.5).sample(random)));
+        assertTrue(IntStream.range(0, 1000)
+                .noneMatch(i -> AliasSampler.ofChance(0.0).sample(random)));
+    }
+}
@@ -19,6 +19,10 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
 import tech.metacontext.ec.prototype.composer.TestCenter;
+import tech.metacontext.ec.prototype.composer.factory.CompositionFactory;
+import tech.metacontext.ec.prototype.composer.factory.SketchNodeFactory;
+import tech.metacontext.ec.prototype.composer.model.Composition;
+import tech.metacontext.ec.prototype.composer.model.Connector;
 
 /**
  *
@@ -44,4 +48,36 @@ public class UnaccompaniedCelloTest {
                 .forEach(score -> assertTrue(score > 0.0));
     }
 
+    /**
+     * Elongations of a composition never score above its upper bound, zero
+     * for a seed with note ranges out of range.
+     */
+    @Test
+    public void testGetUpperBound() {
+
+        System.out.println("getUpperBound");
+        var factory = CompositionFactory.getInstance(tc.getComposer());
+        tc.getComposer().getPopulation().forEach(c -> {
+            var copy = factory.forMutation(c);
+            double bound = instance.getUpperBound(copy);
+            for (int i = 0; i < 3; i++) {
+                copy.elongate();
+                copy.getRenderedChecked("UnaccompaniedCelloTest::testGetUpperBound");
+                assertTrue(instance.rateComposition(copy) <= bound);
+            }
+        });
+        Composition c;
+        do {
+            c = new Composition(tc.getComposer());
+            c.addConnector(Connector.getSampler().sample());
+            c.resetSeed(SketchNodeFactory.getInstance().newInstance());
+            c.getRenderedChecked("UnaccompaniedCelloTest::testGetUpperBound");
+        } while (instance.getUpperBound(c) > 0.0);
+        for (int i = 0; i < 5; i++) {
+            c.elongate();
+            c.getRenderedChecked("UnaccompaniedCelloTest::testGetUpperBound");
+            assertEquals(0.0, instance.rateComposition(c));
+        }
+    }
+
 }
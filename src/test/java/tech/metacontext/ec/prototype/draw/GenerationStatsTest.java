@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Jonathan Chang, Chun-yien <ccy@musicapoetica.org>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tech.metacontext.ec.prototype.draw;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Jonathan Chang, Chun-yien <ccy@musicapoetica.org>
+ */
+public class GenerationStatsTest {
+
+    @TempDir
+    Path folder;
+
+    public GenerationStatsTest() {
+    }
+
+    /**
+     * Test of record method, non-positive scores are not counted.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("record");
+        var stats = new GenerationStats();
+        stats.record(2, new double[]{0.0, 0.4, 0.1, 0.3, 0.2, 0.5});
+        stats.recordZero(2, 1);
+        stats.recordConserved(2, 0.8);
+        stats.recordConserved(2, 0.9);
+        System.out.println(stats.row(2));
+        assertEquals(3, stats.size());
+        assertEquals(0, stats.getCount(0));
+        assertTrue(Double.isNaN(stats.getMean(1)));
+        assertEquals(5, stats.getCount(2));
+        assertEquals(0.1, stats.getMin(2), 1e-9);
+        assertEquals(0.2, stats.getQ1(2), 1e-9);
+        assertEquals(0.3, stats.getMedian(2), 1e-9);
+        assertEquals(0.4, stats.getQ3(2), 1e-9);
+        assertEquals(0.5, stats.getMax(2), 1e-9);
+        assertEquals(0.3, stats.getMean(2), 1e-9);
+        assertEquals(2, stats.getConserved(2));
+        assertEquals(0.9, stats.getConservedMax(2), 1e-9);
+        assertEquals(6, stats.getPopulation(2));
+        assertEquals(1.0 / 6, stats.getZeroRate(2), 1e-9);
+        assertTrue(Double.isNaN(stats.getZeroRate(0)));
+    }
+
+    /**
+     * Test of bin method, minimum, maximum, mean and conserved are exact.
+     */
+    @Test
+    public void testBin() {
+        System.out.println("bin");
+        var random = new Random(1);
+        var stats = new GenerationStats();
+        var scores = new double[1001][];
+        IntStream.range(0, scores.length).forEach(g -> {
+            scores[g] = random.doubles(50, 0.01, 1.0).toArray();
+            stats.record(g, scores[g]);
+            stats.recordZero(g, g % 3);
+            if (g % 7 == 0) {
+                stats.recordConserved(g, scores[g][0]);
+            }
+        });
+        var binned = stats.bin(100);
+        assertEquals(11, binned.getWidth());
+        assertEquals(91, binned.size());
+        assertSame(stats, stats.bin(2000));
+        assertThrows(IllegalStateException.class, () -> binned.record(0, scores[0]));
+        for (int row = 0; row < binned.size(); row++) {
+            int from = binned.getGeneration(row), to = Math.min(scores.length, from + 11);
+            var all = IntStream.range(from, to)
+                    .mapToObj(g -> scores[g])
+                    .flatMapToDouble(Arrays::stream)
+                    .summaryStatistics();
+            assertEquals(all.getCount(), binned.getCount(row));
+            assertEquals(all.getMin(), binned.getMin(row));
+            assertEquals(all.getMax(), binned.getMax(row));
+            assertEquals(all.getAverage(), binned.getMean(row), 1e-9);
+            assertEquals(IntStream.range(from, to).filter(g -> g % 7 == 0).count(),
+                    binned.getConserved(row));
+            assertEquals(IntStream.range(from, to).map(g -> g % 3).sum(),
+                    binned.getZero(row));
+            assertEquals(50 * (to - from), binned.getPopulation(row));
+            assertTrue(binned.getQ1(row) <= binned.getMedian(row)
+                    && binned.getMedian(row) <= binned.getQ3(row));
+        }
+    }
+
+    /**
+     * Charts of 100,000 generations are exported in seconds.
+     */
+    @Test
+    public void testExport() throws Exception {
+        System.out.println("export");
+        var random = new Random(1);
+        var stats = new GenerationStats();
+        IntStream.range(0, 100_000).forEach(g -> {
+            stats.record(g, random.doubles(20, 0.01, 1.0).toArray());
+            if (g % 1000 == 0) {
+                stats.recordConserved(g, 0.95);
+            }
+        });
+        long start = System.currentTimeMillis();
+        var exporter = new ChartExporter(stats, "Test", 0.9);
+        var png = exporter.writePng(folder.resolve("test.png"));
+        var svg = exporter.writeSvg(folder.resolve("test.svg"));
+        long millis = System.currentTimeMillis() - start;
+        System.out.println("Exported in " + millis + " ms.");
+        assertTrue(Files.size(png) > 0);
+        assertTrue(Files.readString(svg).startsWith("<svg"));
+        assertTrue(millis < 10_000);
+    }
+}